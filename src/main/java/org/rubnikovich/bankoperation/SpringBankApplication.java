@@ -1,10 +1,7 @@
 package org.rubnikovich.bankoperation;
 
-import org.modelmapper.ModelMapper;
-import org.rubnikovich.bankoperation.entity.User;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
@@ -14,9 +11,4 @@ public class SpringBankApplication {
         SpringApplication.run(SpringBankApplication.class, args);
     }
 
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-
 }
\ No newline at end of file
@@ -5,9 +5,10 @@ public interface ApiConstant {
     String DELETED = "Deleted ";
     String ALREADY_EXISTS = "Already exists";
     String REGISTRATION_FAILED = "Registration failed ";
-    String REGISTRATION_COMPLETED = "Registration is completed ";
-    String LOGIN_FAILED = "Login is failed ";
-    String LOGIN_COMPLETED = "Login is completed ";
+    String REGISTRATION_FAILED_LOG = "Registration failed {}";
+    String REGISTRATION_COMPLETED = "Registration is completed {}";
+    String LOGIN_FAILED = "Login is failed {}";
+    String LOGIN_COMPLETED = "Login is completed {}";
     String INCORRECT = "Incorrect login or password ";
     String MESSAGE = "Message ";
 
@@ -15,27 +16,62 @@ public interface ApiConstant {
     String INVALID_JWT_TOKEN = "Invalid JWT Token";
     String BEARER = "Bearer ";
     String AUTHORIZATION = "Authorization";
+    String UNKNOWN_SIGNING_KEY = "Unknown token signing key ";
+    String INVALID_PREVIOUS_KEY = "token.signing.previous-keys entries must be kid:secret with a non-blank key id " +
+            "and secret, got ";
+    String PASSWORD_HASHING_BUSY = "Too many authentication requests, retry later";
+    String SERVER_BUSY = "Too many concurrent requests, retry later";
+    String PASSWORD_COST_ADVICE = "Password hashing cost {}, this host fits cost {} into {} ms";
+    String PASSWORD_COST_OVER_TARGET = "Password hashing cost {} exceeds {} ms on this host, which fits cost {}";
+    String PASSWORD_REHASHED = "Password rehashed with current cost for {}";
 
     String TRANSACTION_SUCCESSFULLY = "Transaction made successfully ";
     String TRANSACTION_FAILED = "Failed to make transaction ";
     String TRANSACTION_FAILED_BALANCE = "Failed to make transaction, insufficient funds for the transaction";
+    String TRANSACTION_FAILED_SAME_ACCOUNT = "Failed to make transaction, sender and recipient are the same account";
+    String TRANSACTION_BATCH_COMPLETED = "Transaction batch processed, completed: {}/{}";
+    String TRANSACTION_BATCH_TOO_LARGE = "Failed to make transactions, batch size exceeds {}";
+    String INVALID_CURSOR = "Invalid cursor {}";
+    String TRANSFER_RETRY = "Transfer lock conflict, retry attempt {}";
+    String TRANSFER_BATCH_FALLBACK = "Transfer batch rejected, replaying transfers one by one: {}";
 
     String USER_NOT_FOUND = "User not found";
     String USER_DELETION_FAILED ="User deletion failed ";
+    String USER_DELETED_LOG = "User deleted {}";
     String FETCHING_ALL_USERS = "Fetching all users ";
+    String UNSUPPORTED_EXPORT_FORMAT = "Unsupported export format {}";
+    String EMPTY_SEARCH = "Search text is empty";
 
-    String EMAILS = "Emails ";
+    String EMAILS = "Emails {}";
     String EMAIL_UPDATED = "Email updated ";
     String FAILED_UPDATED_EMAIL = "Failed to update email ";
     String EMAIL_ADDED = "Email added ";
     String FAILED_ADD_EMAIL = "Failed to add email ";
-    String FAILED_DELETE_EMAIL = "Failed to delete email ";
+    String EMAIL_ADDED_LOG = "Email added {} for {}";
+    String EMAIL_EXISTS_LOG = "Failed to add email {} for {}, already exists";
+    String EMAIL_UPDATED_LOG = "Email updated {} -> {} for {}";
+    String FAILED_UPDATE_EMAIL_LOG = "Failed to update email {} -> {} for {}";
+    String EMAIL_DELETED_LOG = "Email deleted {} for {}";
+    String FAILED_DELETE_EMAIL_LOG = "Failed to delete email {} for {}, not found";
 
-    String PHONES = "Phones ";
+    String ACCRUAL_COMPLETED = "Accrual completed, rows: {}, ms: {}, rows/sec: {}";
+    String ACCRUAL_FAILED = "Accrual failed after rows: {}";
+    String ACCRUAL_RESUMED = "Accrual resumed, shards: {}";
+    String LEDGER_COMPACTED = "Ledger compacted, accounts: {}";
+    String LEDGER_OVERDRAFT = "Ledger entries would overdraw account ";
+    String ACCRUAL_SKIPPED = "Accrual tick skipped, previous run is still in progress";
+    String VIRTUAL_THREAD_PINNED = "Virtual thread pinned for {} ms at {}";
+
+    String PHONES = "Phones {}";
     String PHONE_UPDATED = "Phone updated ";
     String FAILED_UPDATED_PHONE = "Failed to update phone ";
     String PHONE_ADDED = "Phone added ";
     String FAILED_ADD_PHONE = "Failed to add phone ";
-    String FAILED_DELETE_PHONE = "Failed to delete phone ";
+    String PHONE_ADDED_LOG = "Phone added {} for {}";
+    String PHONE_EXISTS_LOG = "Failed to add phone {} for {}, already exists";
+    String PHONE_UPDATED_LOG = "Phone updated {} -> {} for {}";
+    String FAILED_UPDATE_PHONE_LOG = "Failed to update phone {} -> {} for {}";
+    String PHONE_DELETED_LOG = "Phone deleted {} for {}";
+    String FAILED_DELETE_PHONE_LOG = "Failed to delete phone {} for {}, not found";
 
 }
@@ -0,0 +1,78 @@
+package org.rubnikovich.bankoperation.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.SERVER_BUSY;
+
+// Virtual-thread Tomcat has no worker pool to queue behind, so this caps the requests in flight instead.
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String REJECTED_COUNTER = "bank.requests.rejected";
+
+    private final MeterRegistry meterRegistry;
+    private Semaphore permits;
+
+    @Value("${virtual-threads.concurrency.max-requests}")
+    private int maxRequests;
+
+    @Value("${virtual-threads.concurrency.queue-timeout-ms}")
+    private long queueTimeoutMillis;
+
+    @Value("${virtual-threads.concurrency.retry-after-seconds}")
+    private long retryAfterSeconds;
+
+    @PostConstruct
+    public void createPermits() {
+        permits = new Semaphore(maxRequests, true);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            meterRegistry.counter(REJECTED_COUNTER).increment();
+            log.warn(SERVER_BUSY);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.getWriter().write(SERVER_BUSY);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
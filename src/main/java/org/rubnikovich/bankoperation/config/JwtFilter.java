@@ -1,6 +1,9 @@
 package org.rubnikovich.bankoperation.config;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,8 +26,11 @@ import static org.rubnikovich.bankoperation.config.ApiConstant.*;
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final String VERIFY_TIMER = "bank.jwt.verify";
+
     private final JwtUtil jwtUtil;
     private final DetailsService usersDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse, FilterChain filterChain) throws IOException, ServletException {
@@ -37,11 +43,12 @@ public class JwtFilter extends OncePerRequestFilter {
                 return;
             } else {
                 try {
-                    String username = jwtUtil.validateTokenAndGetClaim(jwt);
-                    UserDetails userDetails = usersDetailsService.loadUserByUsername(username);
+                    DecodedJWT decodedJwt = verify(jwt);
+                    UserDetails userDetails = usersDetailsService.loadPrincipal(
+                            decodedJwt.getClaim("login").asString(), decodedJwt.getId());
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails,
-                                    userDetails.getPassword(),
+                                    null,
                                     userDetails.getAuthorities());
                     if (SecurityContextHolder.getContext().getAuthentication() == null) {
                         SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -55,4 +62,16 @@ public class JwtFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(httpServletRequest, httpServletResponse);
     }
+
+    private DecodedJWT verify(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            DecodedJWT decodedJwt = jwtUtil.verify(jwt);
+            outcome = "valid";
+            return decodedJwt;
+        } finally {
+            sample.stop(meterRegistry.timer(VERIFY_TIMER, "outcome", outcome));
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package org.rubnikovich.bankoperation.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.VIRTUAL_THREAD_PINNED;
+
+// records pins longer than virtual-threads.pinning.threshold-ms from the jdk.VirtualThreadPinned JFR event
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String PINNED_TIMER = "bank.virtual-threads.pinned";
+
+    private final MeterRegistry meterRegistry;
+    private RecordingStream stream;
+
+    @Value("${virtual-threads.pinning.threshold-ms}")
+    private long thresholdMillis;
+
+    @Value("${virtual-threads.pinning.stack-depth}")
+    private int stackDepth;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        meterRegistry.timer(PINNED_TIMER).record(event.getDuration());
+        log.warn(VIRTUAL_THREAD_PINNED, event.getDuration().toMillis(), topFrames(event.getStackTrace()));
+    }
+
+    private String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        int first = 0;
+        while (first < frames.size() - 1 && isJdkFrame(frames.get(first))) {
+            first++;
+        }
+        StringJoiner joiner = new StringJoiner(" <- ");
+        for (int i = first; i < Math.min(first + stackDepth, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            joiner.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                    + ":" + frame.getLineNumber());
+        }
+        return joiner.toString();
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.");
+    }
+}
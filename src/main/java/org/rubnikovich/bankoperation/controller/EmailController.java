@@ -9,8 +9,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.rubnikovich.bankoperation.dto.EmailUpdateDto;
 import org.rubnikovich.bankoperation.dto.UserEmailDto;
+import org.rubnikovich.bankoperation.security.UsersDetails;
 import org.rubnikovich.bankoperation.service.EmailService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,9 +31,8 @@ public class EmailController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @GetMapping
-    public ResponseEntity<List<String>> getAllUserEmails(@RequestHeader("Authorization")
-                                                         String token) {
-        return emailService.getAllUserEmails(token);
+    public ResponseEntity<List<String>> getAllUserEmails(@AuthenticationPrincipal UsersDetails principal) {
+        return emailService.getAllUserEmails(principal);
     }
 
     @Operation(summary = "Add an email for the authenticated user")
@@ -40,10 +41,10 @@ public class EmailController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @PostMapping
-    public ResponseEntity<String> addEmail(@RequestHeader("Authorization") String token,
+    public ResponseEntity<String> addEmail(@AuthenticationPrincipal UsersDetails principal,
                                            @RequestBody @Valid UserEmailDto emailDto,
                                            BindingResult bindingResult) {
-        return emailService.emailAdd(token, emailDto, bindingResult);
+        return emailService.emailAdd(principal, emailDto, bindingResult);
     }
 
     @Operation(summary = "Update an email for the authenticated user")
@@ -52,10 +53,10 @@ public class EmailController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @PutMapping()
-    public ResponseEntity<String> update(@RequestHeader("Authorization") String token,
+    public ResponseEntity<String> update(@AuthenticationPrincipal UsersDetails principal,
                                          @RequestBody @Valid EmailUpdateDto updateDto,
                                          BindingResult bindingResult) {
-        return emailService.emailUpdate(token, updateDto, bindingResult);
+        return emailService.emailUpdate(principal, updateDto, bindingResult);
     }
 
     @Operation(summary = "Delete an email for the authenticated user")
@@ -64,8 +65,8 @@ public class EmailController {
             @ApiResponse(responseCode = "404", description = "Not found")
     })
     @DeleteMapping
-    public ResponseEntity<String> delete(@RequestHeader("Authorization") String token,
+    public ResponseEntity<String> delete(@AuthenticationPrincipal UsersDetails principal,
                                          @RequestBody UserEmailDto emailDto) {
-        return emailService.emailDelete(token, emailDto);
+        return emailService.emailDelete(principal, emailDto);
     }
 }
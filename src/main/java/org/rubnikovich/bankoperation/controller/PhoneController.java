@@ -8,8 +8,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.rubnikovich.bankoperation.dto.PhoneUpdateDto;
 import org.rubnikovich.bankoperation.dto.UserPhoneNumberDto;
+import org.rubnikovich.bankoperation.security.UsersDetails;
 import org.rubnikovich.bankoperation.service.PhoneService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,9 +30,8 @@ public class PhoneController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @GetMapping
-    public ResponseEntity<List<String>> getAllUserPhones(@RequestHeader("Authorization")
-                                                         String token) {
-        return phoneService.getAllUserPhones(token);
+    public ResponseEntity<List<String>> getAllUserPhones(@AuthenticationPrincipal UsersDetails principal) {
+        return phoneService.getAllUserPhones(principal);
     }
 
     @Operation(summary = "Add an phone for the authenticated user")
@@ -39,10 +40,10 @@ public class PhoneController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @PostMapping
-    public ResponseEntity<String> addPhone(@RequestHeader("Authorization") String token,
+    public ResponseEntity<String> addPhone(@AuthenticationPrincipal UsersDetails principal,
                                            @RequestBody @Valid UserPhoneNumberDto phoneDto,
                                            BindingResult bindingResult) {
-        return phoneService.phoneAdd(token, phoneDto, bindingResult);
+        return phoneService.phoneAdd(principal, phoneDto, bindingResult);
     }
 
     @Operation(summary = "Update an phone for the authenticated user")
@@ -51,10 +52,10 @@ public class PhoneController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @PutMapping()
-    public ResponseEntity<String> update(@RequestHeader("Authorization") String token,
+    public ResponseEntity<String> update(@AuthenticationPrincipal UsersDetails principal,
                                          @RequestBody @Valid PhoneUpdateDto updateDto,
                                          BindingResult bindingResult) {
-        return phoneService.phoneUpdate(token, updateDto, bindingResult);
+        return phoneService.phoneUpdate(principal, updateDto, bindingResult);
     }
 
     @Operation(summary = "Delete an phone for the authenticated user")
@@ -63,8 +64,8 @@ public class PhoneController {
             @ApiResponse(responseCode = "404", description = "Not found")
     })
     @DeleteMapping
-    public ResponseEntity<String> delete(@RequestHeader("Authorization") String token,
+    public ResponseEntity<String> delete(@AuthenticationPrincipal UsersDetails principal,
                                          @RequestBody UserPhoneNumberDto phoneDto) {
-        return phoneService.phoneDelete(token, phoneDto);
+        return phoneService.phoneDelete(principal, phoneDto);
     }
 }
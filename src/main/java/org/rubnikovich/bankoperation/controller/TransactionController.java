@@ -6,11 +6,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.rubnikovich.bankoperation.dto.TransactionDto;
+import org.rubnikovich.bankoperation.dto.TransactionPageDto;
+import org.rubnikovich.bankoperation.dto.TransactionResultDto;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.rubnikovich.bankoperation.service.TransactionHistoryService;
 import org.rubnikovich.bankoperation.service.TransactionService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -21,6 +29,7 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionHistoryService transactionHistoryService;
 
     @Operation(summary = "Make a transaction")
     @ApiResponses(value = {
@@ -28,29 +37,61 @@ public class TransactionController {
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @PostMapping
-    public ResponseEntity<String> makeTransaction(@RequestHeader("Authorization") String token,
+    public ResponseEntity<String> makeTransaction(@AuthenticationPrincipal UsersDetails principal,
                                           @RequestBody TransactionDto transactionDto) {
-        return transactionService.makeTransaction(transactionDto, token);
+        return transactionService.makeTransaction(transactionDto, principal);
     }
 
-    @Operation(summary = "Get all transactions of the authenticated user")
+    @Operation(summary = "Make a batch of transactions from the authenticated user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transactions processed, see per-item status"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<TransactionResultDto>> makeTransactions(@AuthenticationPrincipal UsersDetails principal,
+                                                                       @RequestBody List<TransactionDto> transactionDtos) {
+        return transactionService.makeTransactions(transactionDtos, principal);
+    }
+
+    @Operation(summary = "Get a page of transactions of the authenticated user, newest first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
-            @ApiResponse(responseCode = "404", description = "Not found")
+            @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @GetMapping("/user")
-    public ResponseEntity<List<TransactionDto>> getAllUserTransactions(@RequestHeader("Authorization") String token) {
-        return transactionService.getAllUserTransactions(token);
+    public ResponseEntity<TransactionPageDto> getAllUserTransactions(
+            @AuthenticationPrincipal UsersDetails principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return transactionHistoryService.getAllUserTransactions(principal, from, to, cursor, size);
     }
 
-    @Operation(summary = "Get all transactions")
+    @Operation(summary = "Stream all transactions of the authenticated user as NDJSON, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transactions streamed successfully")
+    })
+    @GetMapping(value = "/user/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUserTransactions(
+            @AuthenticationPrincipal UsersDetails principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return transactionHistoryService.streamUserTransactions(principal, from, to);
+    }
+
+    @Operation(summary = "Get a page of all transactions, newest first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
-            @ApiResponse(responseCode = "404", description = "Not found")
+            @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @GetMapping
-    public ResponseEntity<List<TransactionDto>> getAllTransactions() {
-        return transactionService.getAllTransactions();
+    public ResponseEntity<TransactionPageDto> getAllTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return transactionHistoryService.getAllTransactions(from, to, cursor, size);
     }
 
 }
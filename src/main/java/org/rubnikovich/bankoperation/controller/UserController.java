@@ -8,12 +8,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.rubnikovich.bankoperation.dto.UserDto;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.rubnikovich.bankoperation.service.UserExportService;
 import org.rubnikovich.bankoperation.service.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -25,15 +30,19 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserExportService userExportService;
 
+    @Operation(summary = "Export all users as a JSON array, NDJSON or CSV, gzipped when accepted")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+            @ApiResponse(responseCode = "200", description = "Users exported successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDto.class))),
             @ApiResponse(responseCode = "400", description = "Bad request")
     })
     @GetMapping("/show")
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        return userService.getAll();
+    public ResponseEntity<StreamingResponseBody> getAllUsers(
+            @RequestParam(defaultValue = "json") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return userExportService.export(format, acceptEncoding);
     }
 
     @Operation(summary = "Delete user")
@@ -44,8 +53,8 @@ public class UserController {
                     content = @Content(mediaType = "application/json"))
     })
     @DeleteMapping()
-    public ResponseEntity<String> delete(@RequestHeader("Authorization") String token) {
-        return userService.delete(token);
+    public ResponseEntity<String> delete(@AuthenticationPrincipal UsersDetails principal) {
+        return userService.delete(principal);
     }
 
     @Operation(summary = "Get users by birth date")
@@ -70,11 +79,23 @@ public class UserController {
     })
     @GetMapping("/find")
     public ResponseEntity<Page<UserDto>> getAllUsers(
-            @RequestParam(required = false) LocalDate birthDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate birthDate,
             @RequestParam(required = false) String phone,
             @RequestParam(required = false) String lastName,
             @RequestParam(required = false) String email,
             Pageable pageable) {
         return userService.getAllUsers(birthDate, phone, lastName, email, pageable);
     }
+
+    @Operation(summary = "Search users by name, email or phone, best matches first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<UserDto>> searchUsers(
+            @RequestParam("query") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        return userService.search(query, limit);
+    }
 }
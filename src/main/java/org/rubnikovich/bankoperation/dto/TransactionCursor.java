@@ -0,0 +1,30 @@
+package org.rubnikovich.bankoperation.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public record TransactionCursor(LocalDateTime date, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String value = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException(cursor);
+        }
+        try {
+            return new TransactionCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(cursor, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.rubnikovich.bankoperation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TransactionPageDto {
+
+    @Schema(description = "transactions, newest first")
+    private List<TransactionDto> transactions;
+
+    @Schema(description = "cursor of the next page, absent on the last page")
+    private String nextCursor;
+}
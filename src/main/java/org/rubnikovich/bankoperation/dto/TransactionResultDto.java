@@ -0,0 +1,29 @@
+package org.rubnikovich.bankoperation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@Builder
+public class TransactionResultDto {
+
+    @Schema(description = "position of the transfer in the request", example = "0")
+    private int index;
+
+    @Schema(description = "recipient id", example = "1")
+    private long recipientId;
+
+    @Schema(description = "transfer amount", example = "30")
+    private BigDecimal amount;
+
+    @Schema(description = "transfer status", example = "COMPLETED")
+    private String status;
+
+    @Schema(description = "result message", example = "Transaction made successfully ")
+    private String message;
+}
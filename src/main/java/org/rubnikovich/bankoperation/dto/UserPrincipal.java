@@ -0,0 +1,4 @@
+package org.rubnikovich.bankoperation.dto;
+
+public record UserPrincipal(Long id, String login) {
+}
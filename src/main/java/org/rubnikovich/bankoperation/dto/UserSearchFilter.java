@@ -0,0 +1,7 @@
+package org.rubnikovich.bankoperation.dto;
+
+import java.time.LocalDate;
+
+// null fields are not applied; birthDate keeps users born after it, lastName matches as a substring
+public record UserSearchFilter(LocalDate birthDate, String phone, String lastName, String email) {
+}
@@ -0,0 +1,8 @@
+package org.rubnikovich.bankoperation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record UserSummary(String login, String firstName, String lastName, LocalDate birthDate,
+                          BigDecimal balance, BigDecimal initialDeposit) {
+}
@@ -0,0 +1,38 @@
+package org.rubnikovich.bankoperation.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Entity
+@Table(name = "accrual_checkpoint")
+public class AccrualCheckpoint {
+
+    @Id
+    @Column(name = "shard")
+    private int shard;
+
+    @Column(name = "first_id", nullable = false)
+    private long firstId;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "processed_id", nullable = false)
+    private long processedId;
+
+    @Column(name = "run_started_at", nullable = false)
+    private LocalDateTime runStartedAt;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+}
@@ -0,0 +1,7 @@
+package org.rubnikovich.bankoperation.entity;
+
+public enum LedgerEntryType {
+    DEBIT,
+    CREDIT,
+    ACCRUAL
+}
@@ -0,0 +1,61 @@
+package org.rubnikovich.bankoperation.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+    public static final int SCALE = 2;
+
+    // HALF_UP is the rounding a NUMERIC(38, 2) column applies on insert
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    // Request amounts: null when missing or too large for a long of cents, which no balance can cover anyway
+    public static Money ofOrNull(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            return of(amount);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -43,7 +43,7 @@ public class User {
     @Column(name = "birth_day", nullable = false)
     private LocalDate birthDate;
 
-    @Column(name = "balance")
+    @Column(name = "balance", updatable = false)
     @DecimalMin(value = "0.0", message = "Balance cannot be negative")
     private BigDecimal balance;
 
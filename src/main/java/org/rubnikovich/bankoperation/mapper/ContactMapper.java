@@ -0,0 +1,25 @@
+package org.rubnikovich.bankoperation.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+import org.rubnikovich.bankoperation.dto.UserEmailDto;
+import org.rubnikovich.bankoperation.dto.UserPhoneNumberDto;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.entity.UserEmail;
+import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ContactMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "email", source = "emailDto.email")
+    @Mapping(target = "user", source = "user")
+    UserEmail toUserEmail(UserEmailDto emailDto, User user);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "phone", source = "phoneDto.phone")
+    @Mapping(target = "user", source = "user")
+    UserPhoneNumber toUserPhone(UserPhoneNumberDto phoneDto, User user);
+}
@@ -0,0 +1,23 @@
+package org.rubnikovich.bankoperation.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+import org.rubnikovich.bankoperation.dto.UserDto;
+import org.rubnikovich.bankoperation.dto.UserSummary;
+import org.rubnikovich.bankoperation.entity.User;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "sentTransactions", ignore = true)
+    @Mapping(target = "receivedTransactions", ignore = true)
+    User toUser(UserDto userDto);
+
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "emails", ignore = true)
+    @Mapping(target = "phones", ignore = true)
+    UserDto toUserDto(UserSummary summary);
+}
@@ -0,0 +1,24 @@
+package org.rubnikovich.bankoperation.repository;
+
+import org.rubnikovich.bankoperation.entity.AccrualCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccrualCheckpointRepository extends JpaRepository<AccrualCheckpoint, Integer> {
+
+    List<AccrualCheckpoint> findAllByCompletedFalse();
+
+    @Modifying
+    @Query("UPDATE AccrualCheckpoint c SET c.processedId = :processedId WHERE c.shard = :shard")
+    int advance(@Param("shard") int shard, @Param("processedId") long processedId);
+
+    @Modifying
+    @Query("UPDATE AccrualCheckpoint c SET c.completed = true WHERE c.shard = :shard")
+    int markCompleted(@Param("shard") int shard);
+}
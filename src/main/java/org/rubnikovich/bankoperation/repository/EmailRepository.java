@@ -1,9 +1,9 @@
 package org.rubnikovich.bankoperation.repository;
 
 import org.rubnikovich.bankoperation.entity.UserEmail;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -11,12 +11,11 @@ public interface EmailRepository extends JpaRepository<UserEmail, Long> {
 
     boolean existsByEmail(String email);
 
-    List<UserEmail> findAllByUserId(Long userId);
+    @Query("SELECT e FROM UserEmail e WHERE e.user.id = :userId")
+    List<UserEmail> findAllByUserId(@Param("userId") Long userId);
 
     void deleteByEmail(String email);
 
     UserEmail findByEmail(String email);
 
-    Page<UserEmail> findByEmail(String email, Pageable pageable);
-
 }
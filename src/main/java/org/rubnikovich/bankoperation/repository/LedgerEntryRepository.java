@@ -0,0 +1,39 @@
+package org.rubnikovich.bankoperation.repository;
+
+import org.rubnikovich.bankoperation.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    // the users u snapshot plus the entries appended after it
+    String ACCOUNT_BALANCE = "u.balance + COALESCE((SELECT SUM(e.amount) FROM ledger_entry e " +
+            "WHERE e.account_id = u.id AND e.id > u.ledger_entry_id), 0)";
+
+    @Query("SELECT max(e.id) FROM LedgerEntry e")
+    Long findMaxId();
+
+    @Query("SELECT DISTINCT e.account.id FROM LedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId")
+    List<Long> findAccountsWithEntries(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    @Modifying
+    @Query(value = "INSERT INTO ledger_entry (account_id, entry_type, amount, created_at) " +
+            "SELECT id, 'ACCRUAL', ROUND(LEAST(balance + initial_deposit * 0.05, initial_deposit * 2.07), 2) - balance, " +
+            "CURRENT_TIMESTAMP FROM (SELECT u.id, u.initial_deposit, " + ACCOUNT_BALANCE + " AS balance FROM users u " +
+            "WHERE u.id > :afterId AND u.id <= :upToId) accounts " +
+            "WHERE balance <> ROUND(initial_deposit * 2.07, 2)", nativeQuery = true)
+    int accrueInterest(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    @Modifying
+    @Query(value = "UPDATE users u SET balance = " + ACCOUNT_BALANCE + ", ledger_entry_id = COALESCE(" +
+            "(SELECT max(e.id) FROM ledger_entry e WHERE e.account_id = u.id), u.ledger_entry_id) " +
+            "WHERE u.id IN (:ids)", nativeQuery = true)
+    int compact(@Param("ids") Collection<Long> ids);
+}
@@ -2,6 +2,8 @@ package org.rubnikovich.bankoperation.repository;
 
 import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -9,7 +11,8 @@ public interface PhoneRepository extends JpaRepository<UserPhoneNumber, Long> {
 
     boolean existsByPhone(String phoneNumber);
 
-    List<UserPhoneNumber> findAllByUserId(Long userId);
+    @Query("SELECT p FROM UserPhoneNumber p WHERE p.user.id = :userId")
+    List<UserPhoneNumber> findAllByUserId(@Param("userId") Long userId);
 
     void deleteByPhone(String phone);
 
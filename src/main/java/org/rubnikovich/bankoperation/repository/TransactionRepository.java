@@ -1,13 +1,55 @@
 package org.rubnikovich.bankoperation.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.rubnikovich.bankoperation.dto.TransactionDto;
 import org.rubnikovich.bankoperation.entity.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    List<Transaction> getAllByRecipientIdOrSenderId(Long recipientId, Long senderId);
+    @Query("SELECT new org.rubnikovich.bankoperation.dto.TransactionDto(t.id, t.sender.id, t.recipient.id, t.amount, t.date) " +
+            "FROM Transaction t WHERE t.sender.id = :userId AND t.date >= :from " +
+            "AND (t.date, t.id) < (:beforeDate, :beforeId) ORDER BY t.date DESC, t.id DESC")
+    List<TransactionDto> findSentPage(@Param("userId") long userId, @Param("from") LocalDateTime from,
+                                      @Param("beforeDate") LocalDateTime beforeDate,
+                                      @Param("beforeId") long beforeId, Limit limit);
+
+    @Query("SELECT new org.rubnikovich.bankoperation.dto.TransactionDto(t.id, t.sender.id, t.recipient.id, t.amount, t.date) " +
+            "FROM Transaction t WHERE t.recipient.id = :userId AND t.date >= :from " +
+            "AND (t.date, t.id) < (:beforeDate, :beforeId) ORDER BY t.date DESC, t.id DESC")
+    List<TransactionDto> findReceivedPage(@Param("userId") long userId, @Param("from") LocalDateTime from,
+                                          @Param("beforeDate") LocalDateTime beforeDate,
+                                          @Param("beforeId") long beforeId, Limit limit);
+
+    @Query("SELECT new org.rubnikovich.bankoperation.dto.TransactionDto(t.id, t.sender.id, t.recipient.id, t.amount, t.date) " +
+            "FROM Transaction t WHERE t.date >= :from " +
+            "AND (t.date, t.id) < (:beforeDate, :beforeId) ORDER BY t.date DESC, t.id DESC")
+    List<TransactionDto> findHistoryPage(@Param("from") LocalDateTime from,
+                                         @Param("beforeDate") LocalDateTime beforeDate,
+                                         @Param("beforeId") long beforeId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.rubnikovich.bankoperation.dto.TransactionDto(t.id, t.sender.id, t.recipient.id, t.amount, t.date) " +
+            "FROM Transaction t WHERE t.sender.id = :userId AND t.date >= :from " +
+            "AND t.date < :to ORDER BY t.date DESC, t.id DESC")
+    Stream<TransactionDto> streamSentHistory(@Param("userId") long userId, @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.rubnikovich.bankoperation.dto.TransactionDto(t.id, t.sender.id, t.recipient.id, t.amount, t.date) " +
+            "FROM Transaction t WHERE t.recipient.id = :userId AND t.date >= :from " +
+            "AND t.date < :to ORDER BY t.date DESC, t.id DESC")
+    Stream<TransactionDto> streamReceivedHistory(@Param("userId") long userId, @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
 }
@@ -1,27 +1,69 @@
 package org.rubnikovich.bankoperation.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.rubnikovich.bankoperation.dto.UserPrincipal;
+import org.rubnikovich.bankoperation.dto.UserSummary;
 import org.rubnikovich.bankoperation.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserSearchRepository {
 
     Optional<User> findByLogin(String login);
 
+    @Query("SELECT new org.rubnikovich.bankoperation.dto.UserPrincipal(u.id, u.login) FROM User u " +
+            "WHERE u.login = :login")
+    Optional<UserPrincipal> findPrincipalByLogin(@Param("login") String login);
+
+    @Query("SELECT 'login' FROM User u WHERE u.login = :login " +
+            "UNION SELECT 'email' FROM UserEmail e WHERE e.email IN :emails " +
+            "UNION SELECT 'phone' FROM UserPhoneNumber p WHERE p.phone IN :phones")
+    List<String> findTakenIdentifiers(@Param("login") String login, @Param("emails") Collection<String> emails,
+                                      @Param("phones") Collection<String> phones);
+
     List<User> findAll();
 
-    Page<User> findAllByBirthDateAfter(LocalDate birthDate, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.rubnikovich.bankoperation.dto.UserSummary(u.login, u.firstName, u.lastName, " +
+            "u.birthDate, u.balance, u.initialDeposit) FROM User u ORDER BY u.id")
+    Stream<UserSummary> streamSummaries();
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.login = :login")
+    int updatePassword(@Param("login") String login, @Param("password") String password);
+
+    @Query(value = "SELECT " + LedgerEntryRepository.ACCOUNT_BALANCE + " FROM users u WHERE u.id = :id",
+            nativeQuery = true)
+    Optional<BigDecimal> findBalanceById(@Param("id") long id);
+
+    @Query("SELECT min(u.id) FROM User u")
+    Long findMinId();
+
+    @Query("SELECT max(u.id) FROM User u")
+    Long findMaxId();
+
+    @Query(value = "SELECT max(chunk.id) FROM (SELECT id FROM users WHERE id > :afterId AND id <= :lastId " +
+            "ORDER BY id LIMIT :limit) chunk", nativeQuery = true)
+    Long findChunkUpperBound(@Param("afterId") long afterId, @Param("lastId") long lastId, @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM users WHERE id > :afterId AND id <= :upToId ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockRange(@Param("afterId") long afterId, @Param("upToId") long upToId);
 
-    @Query("SELECT u FROM User u WHERE u.lastName LIKE %:lastName%")
-    Page<User> findByLastNameLike(@Param("lastName") String lastName, Pageable pageable); //like
+    @Query(value = "SELECT id FROM users WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockAccounts(@Param("ids") Collection<Long> ids);
 
 }
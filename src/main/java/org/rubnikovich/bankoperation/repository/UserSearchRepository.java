@@ -0,0 +1,15 @@
+package org.rubnikovich.bankoperation.repository;
+
+import org.rubnikovich.bankoperation.dto.UserSearchFilter;
+import org.rubnikovich.bankoperation.dto.UserSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface UserSearchRepository {
+
+    Page<UserSummary> searchSummaries(UserSearchFilter filter, Pageable pageable);
+
+    List<UserSummary> searchRanked(String text, int limit);
+}
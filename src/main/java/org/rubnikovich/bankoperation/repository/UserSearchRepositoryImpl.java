@@ -0,0 +1,149 @@
+package org.rubnikovich.bankoperation.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.rubnikovich.bankoperation.dto.UserSearchFilter;
+import org.rubnikovich.bankoperation.dto.UserSummary;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.entity.UserEmail;
+import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private static final Map<String, String> CONTACT_SORTS = Map.of("email", "emails", "phone", "phones");
+    private static final String RANKED_SEARCH = "SELECT u.login, u.first_name, u.last_name, u.birth_day, "
+            + "u.balance, u.initial_deposit FROM (SELECT user_id, max(score) AS score FROM ("
+            + "SELECT id AS user_id, %1$s AS score FROM users WHERE %2$s "
+            + "UNION ALL SELECT id, %3$s FROM users WHERE %4$s "
+            + "UNION ALL SELECT user_id, %5$s FROM emails WHERE %6$s "
+            + "UNION ALL SELECT user_id, %7$s FROM phone_numbers WHERE %8$s) matches "
+            + "GROUP BY user_id ORDER BY score DESC, user_id LIMIT :limit) best "
+            + "JOIN users u ON u.id = best.user_id ORDER BY best.score DESC, u.id";
+    private static final String TRIGRAM_SEARCH = rankedSearch("similarity(%s, :text)", "%s %% :text");
+    private static final String SUBSTRING_SEARCH = rankedSearch("1", "LOWER(%s) LIKE :text");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<UserSummary> searchSummaries(UserSearchFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.construct(UserSummary.class, user.get("login"), user.get("firstName"),
+                user.get("lastName"), user.get("birthDate"), user.get("balance"), user.get("initialDeposit")));
+        query.where(predicates(cb, user, filter));
+        query.orderBy(orders(cb, user, pageable.getSort()));
+        TypedQuery<UserSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        // counts only when the page alone cannot tell the total
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(filter));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserSummary> searchRanked(String text, int limit) {
+        // postgresql ranks by trigram similarity, which tolerates typos; other databases match substrings
+        boolean trigram = isPostgres();
+        NativeQuery<UserSummary> query = entityManager
+                .createNativeQuery(trigram ? TRIGRAM_SEARCH : SUBSTRING_SEARCH)
+                .unwrap(NativeQuery.class)
+                .addScalar("login", String.class)
+                .addScalar("first_name", String.class)
+                .addScalar("last_name", String.class)
+                .addScalar("birth_day", LocalDate.class)
+                .addScalar("balance", BigDecimal.class)
+                .addScalar("initial_deposit", BigDecimal.class)
+                .setTupleTransformer((tuple, aliases) -> new UserSummary((String) tuple[0], (String) tuple[1],
+                        (String) tuple[2], (LocalDate) tuple[3], (BigDecimal) tuple[4], (BigDecimal) tuple[5]));
+        return query
+                .setParameter("text", trigram ? text : "%" + text.toLowerCase(Locale.ROOT) + "%")
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    private static String rankedSearch(String score, String match) {
+        return RANKED_SEARCH.formatted(score.formatted("last_name"), match.formatted("last_name"),
+                score.formatted("first_name"), match.formatted("first_name"),
+                score.formatted("email"), match.formatted("email"),
+                score.formatted("phone_number"), match.formatted("phone_number"));
+    }
+
+    private long count(UserSearchFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.count(user));
+        query.where(predicates(cb, user, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<User> user, UserSearchFilter filter) {
+        List<Predicate> predicates = new ArrayList<>(4);
+        if (filter.email() != null) {
+            Join<User, UserEmail> emails = user.join("emails");
+            predicates.add(cb.equal(emails.get("email"), filter.email()));
+        }
+        if (filter.phone() != null) {
+            Join<User, UserPhoneNumber> phones = user.join("phones");
+            predicates.add(cb.equal(phones.get("phone"), filter.phone()));
+        }
+        if (filter.lastName() != null) {
+            predicates.add(cb.like(user.get("lastName"), "%" + filter.lastName() + "%"));
+        }
+        if (filter.birthDate() != null) {
+            predicates.add(cb.greaterThan(user.get("birthDate"), filter.birthDate()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private List<Order> orders(CriteriaBuilder cb, Root<User> user, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            From<?, ?> source = joinHolding(user, order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(source.get(order.getProperty()))
+                    : cb.desc(source.get(order.getProperty())));
+        }
+        return orders;
+    }
+
+    private From<?, ?> joinHolding(Root<User> user, String property) {
+        String association = CONTACT_SORTS.get(property);
+        for (Join<User, ?> join : user.getJoins()) {
+            if (join.getAttribute().getName().equals(association)) {
+                return join;
+            }
+        }
+        return user;
+    }
+}
@@ -0,0 +1,141 @@
+package org.rubnikovich.bankoperation.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.PASSWORD_COST_ADVICE;
+import static org.rubnikovich.bankoperation.config.ApiConstant.PASSWORD_COST_OVER_TARGET;
+import static org.rubnikovich.bankoperation.config.ApiConstant.PASSWORD_HASHING_BUSY;
+
+// hashes on a fixed pool of password.hashing.threads; a full pool fails at once with PasswordHashingBusyException
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 31;
+    private static final String HASH_TIMER = "bank.password.hash";
+    private static final String REJECTED_COUNTER = "bank.password.rejected";
+
+    private final MeterRegistry meterRegistry;
+    private ThreadPoolExecutor hashers;
+    private BCryptPasswordEncoder delegate;
+
+    @Value("${password.hashing.threads}")
+    private int threads;
+
+    @Value("${password.hashing.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${password.hashing.cost}")
+    private int strength;
+
+    @Value("${password.hashing.target-ms}")
+    private long targetMillis;
+
+    @PostConstruct
+    public void start() {
+        hashers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hasher-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(hashers, "password-hasher", Tags.empty()).bindTo(meterRegistry);
+        delegate = new BCryptPasswordEncoder(strength);
+        int advised = calibrate();
+        if (strength > advised) {
+            log.warn(PASSWORD_COST_OVER_TARGET, strength, targetMillis, advised);
+        } else {
+            log.info(PASSWORD_COST_ADVICE, strength, advised, targetMillis);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        hashers.shutdownNow();
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // only hashes below the configured cost are upgraded, so pods never rehash each other's hashes
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    // the highest cost whose hash still fits into password.hashing.target-ms on this host, logged as advice only
+    private int calibrate() {
+        int cost = MIN_COST;
+        long millis = timeHash(cost);
+        while (cost < MAX_COST && millis * 2 <= targetMillis) {
+            cost++;
+            millis = timeHash(cost);
+        }
+        return millis > targetMillis && cost > MIN_COST ? cost - 1 : cost;
+    }
+
+    private long timeHash(int cost) {
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(cost).encode(CALIBRATION_PASSWORD);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private <T> T submit(String operation, Callable<T> task) {
+        Future<T> result;
+        try {
+            result = hashers.submit(() -> meterRegistry.timer(HASH_TIMER, "operation", operation).recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter(REJECTED_COUNTER).increment();
+            throw new PasswordHashingBusyException(PASSWORD_HASHING_BUSY);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new PasswordHashingBusyException(PASSWORD_HASHING_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
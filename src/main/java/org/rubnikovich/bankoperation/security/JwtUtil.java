@@ -8,38 +8,85 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.ZonedDateTime;
-import java.util.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.INVALID_PREVIOUS_KEY;
+import static org.rubnikovich.bankoperation.config.ApiConstant.UNKNOWN_SIGNING_KEY;
 
 @Component
 public class JwtUtil {
 
-    @Value("${token.signing.key}")
-    public String secret;
+    private static final String SUBJECT = "User details";
+    private static final String ISSUER = "RBNK";
+    private static final Duration TOKEN_LIFETIME = Duration.ofMinutes(60);
+
+    private final String keyId;
+    private final Algorithm signer;
+    private final JWTVerifier currentVerifier;
+    private final Map<String, JWTVerifier> verifiers;
+
+    public JwtUtil(@Value("${token.signing.key}") String secret,
+                   @Value("${token.signing.key-id}") String keyId,
+                   @Value("${token.signing.previous-keys}") List<String> previousKeys) {
+        this.keyId = keyId;
+        this.signer = Algorithm.HMAC256(secret);
+        this.currentVerifier = verifierFor(signer);
+        Map<String, JWTVerifier> byKeyId = new HashMap<>();
+        for (int i = 0; i < previousKeys.size(); i++) {
+            String previousKey = previousKeys.get(i);
+            int separator = previousKey.indexOf(':');
+            // the secret is masked, the message ends up in the startup log
+            if (separator < 0) {
+                throw new IllegalStateException(INVALID_PREVIOUS_KEY + "entry #" + (i + 1) + " without ':'");
+            }
+            String previousKeyId = previousKey.substring(0, separator);
+            String previousSecret = previousKey.substring(separator + 1);
+            if (previousKeyId.isBlank() || previousSecret.isBlank()) {
+                throw new IllegalStateException(INVALID_PREVIOUS_KEY + "'" + previousKeyId + ":"
+                        + (previousSecret.isBlank() ? "" : "****") + "'");
+            }
+            byKeyId.put(previousKeyId, verifierFor(Algorithm.HMAC256(previousSecret)));
+        }
+        byKeyId.put(keyId, currentVerifier);
+        this.verifiers = Map.copyOf(byKeyId);
+    }
 
     public String generateToken(String login) {
-        Date expirationDate = Date.from(ZonedDateTime.now().plusMinutes(60).toInstant());
+        Instant now = Instant.now();
         return JWT.create()
-                .withSubject("User details")
+                .withKeyId(keyId)
+                .withSubject(SUBJECT)
                 .withClaim("login", login)
-                .withIssuedAt(new Date())
-                .withIssuer("RBNK")
-                .withExpiresAt(expirationDate)
-                .sign(Algorithm.HMAC256(secret));
+                .withIssuedAt(now)
+                .withIssuer(ISSUER)
+                .withJWTId(UUID.randomUUID().toString())
+                .withExpiresAt(now.plus(TOKEN_LIFETIME))
+                .sign(signer);
     }
 
     public String validateTokenAndGetClaim(String token) throws JWTVerificationException {
-        JWTVerifier verifier = JWT.require(Algorithm.HMAC256(secret))
-                .withSubject("User details")
-                .withIssuer("RBNK")
-                .build();
-        DecodedJWT jwt = verifier.verify(token);
-        return jwt.getClaim("login").asString();
+        return verify(token).getClaim("login").asString();
     }
 
-    public String getLogin(String token){
-        token = token.substring(7);
-        return validateTokenAndGetClaim(token);
+    public DecodedJWT verify(String token) throws JWTVerificationException {
+        DecodedJWT decoded = JWT.decode(token);
+        String tokenKeyId = decoded.getKeyId();
+        JWTVerifier verifier = tokenKeyId == null ? currentVerifier : verifiers.get(tokenKeyId);
+        if (verifier == null) {
+            throw new JWTVerificationException(UNKNOWN_SIGNING_KEY + tokenKeyId);
+        }
+        return verifier.verify(decoded);
     }
 
+    private static JWTVerifier verifierFor(Algorithm algorithm) {
+        return JWT.require(algorithm)
+                .withSubject(SUBJECT)
+                .withIssuer(ISSUER)
+                .build();
+    }
 }
@@ -0,0 +1,10 @@
+package org.rubnikovich.bankoperation.security;
+
+import org.springframework.security.core.AuthenticationException;
+
+public class PasswordHashingBusyException extends AuthenticationException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -9,10 +9,26 @@ import java.util.Collections;
 
 public class UsersDetails implements UserDetails {
 
-    private final User user;
+    private final long id;
+    private final String login;
+    private final String password;
 
     public UsersDetails(User user) {
-        this.user = user;
+        this(user.getId(), user.getLogin(), user.getPassword());
+    }
+
+    public UsersDetails(long id, String login) {
+        this(id, login, null);
+    }
+
+    public UsersDetails(long id, String login, String password) {
+        this.id = id;
+        this.login = login;
+        this.password = password;
+    }
+
+    public long getId() {
+        return this.id;
     }
 
     @Override
@@ -22,12 +38,12 @@ public class UsersDetails implements UserDetails {
 
     @Override
     public String getPassword() {
-        return this.user.getPassword();
+        return this.password;
     }
 
     @Override
     public String getUsername() {
-        return this.user.getLogin();
+        return this.login;
     }
 
     @Override
@@ -2,17 +2,21 @@ package org.rubnikovich.bankoperation.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.rubnikovich.bankoperation.dto.AuthenticationDto;
 import org.rubnikovich.bankoperation.dto.UserDto;
 import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.mapper.UserMapper;
 import org.rubnikovich.bankoperation.security.JwtUtil;
+import org.rubnikovich.bankoperation.security.PasswordHashingBusyException;
 import org.rubnikovich.bankoperation.validator.CustomValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -21,6 +25,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.rubnikovich.bankoperation.config.ApiConstant.*;
+import static org.rubnikovich.bankoperation.config.SamplingTurboFilter.SAMPLED;
 
 @Component
 @Slf4j
@@ -28,26 +33,35 @@ import static org.rubnikovich.bankoperation.config.ApiConstant.*;
 public class AuthService {
 
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final JwtUtil jwtUtil;
     private final CustomValidator customValidator;
     private final AuthenticationManager authenticationManager;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${password.hashing.retry-after-seconds}")
+    private int retryAfterSeconds;
 
     public ResponseEntity<Map<String, String>> registrationUser(UserDto userDto, BindingResult bindingResult) {
-        User user = convertToUser(userDto);
+        User user = userMapper.toUser(userDto);
         customValidator.validate(user, bindingResult);
         if (bindingResult.hasErrors()) {
             String errors = bindingResult.getFieldErrors().stream()
                     .map(FieldError::getDefaultMessage)
                     .collect(Collectors.joining(". "));
-            log.warn(REGISTRATION_FAILED + errors);
+            log.warn(REGISTRATION_FAILED_LOG, errors);
             return ResponseEntity.badRequest()
                     .body(Map.of(MESSAGE, REGISTRATION_FAILED + errors));
         }
         user.setBalance(user.getInitialDeposit());
+        try {
+            user.setPassword(passwordEncoder.encode(user.getPassword()));
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests();
+        }
         userService.create(user);
         String token = jwtUtil.generateToken(user.getLogin());
-        log.info(REGISTRATION_COMPLETED + user.getLogin());
+        log.info(REGISTRATION_COMPLETED, user.getLogin());
         return ResponseEntity.ok().body(Map.of(JWT_TOKEN, token));
     }
 
@@ -57,7 +71,7 @@ public class AuthService {
             String errors = bindingResult.getFieldErrors().stream()
                     .map(FieldError::getDefaultMessage)
                     .collect(Collectors.joining(". "));
-            log.warn(REGISTRATION_FAILED + errors);
+            log.warn(REGISTRATION_FAILED_LOG, errors);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of(MESSAGE, REGISTRATION_FAILED + errors));
         }
@@ -67,17 +81,22 @@ public class AuthService {
         try {
             authenticationManager.authenticate(authInputToken);
         } catch (BadCredentialsException e) {
-            log.warn(LOGIN_FAILED + authenticationDto.getLogin());
+            log.warn(LOGIN_FAILED, authenticationDto.getLogin());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of(MESSAGE, INCORRECT));
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests();
         }
         String token = jwtUtil.generateToken(authenticationDto.getLogin());
-        log.info(LOGIN_COMPLETED + authenticationDto.getLogin());
+        log.info(SAMPLED, LOGIN_COMPLETED, authenticationDto.getLogin());
         return ResponseEntity.ok().body(Map.of(JWT_TOKEN, token));
     }
 
-    private User convertToUser(UserDto userDto) {
-        return this.modelMapper.map(userDto, User.class);
+    private ResponseEntity<Map<String, String>> tooManyRequests() {
+        log.warn(PASSWORD_HASHING_BUSY);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(MESSAGE, PASSWORD_HASHING_BUSY));
     }
 
 }
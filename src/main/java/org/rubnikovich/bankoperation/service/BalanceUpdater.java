@@ -1,39 +1,139 @@
 package org.rubnikovich.bankoperation.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.entity.AccrualCheckpoint;
+import org.rubnikovich.bankoperation.repository.AccrualCheckpointRepository;
 import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.*;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class BalanceUpdater {
 
+    private static final String RUN_TIMER = "bank.accrual.runs";
+    private static final String ROWS_COUNTER = "bank.accrual.rows";
+
+    private final InterestAccrualEngine accrualEngine;
+    private final AccrualCheckpointRepository checkpointRepository;
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService workers;
+
+    @Value("${accrual.shards}")
+    private int shards;
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
+    @Value("${accrual.parallelism}")
+    private int parallelism;
+
+    @PostConstruct
+    public void startWorkers() {
+        workers = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("accrual-"));
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(fixedRateString = "${accrual.interval-ms}", initialDelayString = "${accrual.interval-ms}")
     public void increaseBalance() {
-        List<User> users = userRepository.findAll();
-        for (User user : users) {
-            BigDecimal currentBalance = user.getBalance();
-            BigDecimal initialDeposit = user.getInitialDeposit();
-            BigDecimal increaseAmount = initialDeposit.multiply(BigDecimal.valueOf(0.05));
-            BigDecimal maxBalance = initialDeposit.multiply(BigDecimal.valueOf(2.07));
-            BigDecimal newBalance = currentBalance.add(increaseAmount);
-            if (newBalance.compareTo(maxBalance) > 0) {
-                newBalance = maxBalance;
+        if (!running.compareAndSet(false, true)) {
+            log.warn(ACCRUAL_SKIPPED);
+            return;
+        }
+        try {
+            List<AccrualCheckpoint> checkpoints = checkpointRepository.findAllByCompletedFalse();
+            if (checkpoints.isEmpty()) {
+                checkpoints = startRun();
+            } else {
+                log.info(ACCRUAL_RESUMED, checkpoints.size());
             }
-            user.setBalance(newBalance.setScale(2, RoundingMode.HALF_UP));
-            userRepository.save(user);
+            runShards(checkpoints);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
         }
     }
-}
\ No newline at end of file
+
+    private List<AccrualCheckpoint> startRun() {
+        return transactionTemplate.execute(status -> {
+            checkpointRepository.deleteAllInBatch();
+            Long minId = userRepository.findMinId();
+            Long maxId = userRepository.findMaxId();
+            if (minId == null || maxId == null) {
+                return List.of();
+            }
+            LocalDateTime startedAt = LocalDateTime.now();
+            long span = maxId - minId + 1;
+            List<AccrualCheckpoint> checkpoints = new ArrayList<>();
+            for (int shard = 0; shard < shards; shard++) {
+                long firstId = minId - 1 + span * shard / shards;
+                long lastId = minId - 1 + span * (shard + 1) / shards;
+                if (lastId > firstId) {
+                    checkpoints.add(toCheckpoint(shard, firstId, lastId, startedAt));
+                }
+            }
+            return checkpointRepository.saveAll(checkpoints);
+        });
+    }
+
+    private void runShards(List<AccrualCheckpoint> checkpoints) {
+        long started = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        CompletableFuture<?>[] futures = checkpoints.stream()
+                .map(checkpoint -> CompletableFuture
+                        .supplyAsync(() -> accrualEngine.accrueShard(checkpoint), workers)
+                        .thenAccept(rows::addAndGet))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).whenComplete((ignored, error) -> {
+            try {
+                long elapsedNanos = System.nanoTime() - started;
+                meterRegistry.timer(RUN_TIMER, "outcome", error == null ? "completed" : "failed")
+                        .record(elapsedNanos, TimeUnit.NANOSECONDS);
+                meterRegistry.counter(ROWS_COUNTER).increment(rows.get());
+                if (error != null) {
+                    log.warn(ACCRUAL_FAILED, rows.get(), error);
+                } else {
+                    long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), 1L);
+                    log.info(ACCRUAL_COMPLETED, rows.get(), elapsedMillis, rows.get() * 1000 / elapsedMillis);
+                }
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    private AccrualCheckpoint toCheckpoint(int shard, long firstId, long lastId, LocalDateTime startedAt) {
+        AccrualCheckpoint checkpoint = new AccrualCheckpoint();
+        checkpoint.setShard(shard);
+        checkpoint.setFirstId(firstId);
+        checkpoint.setLastId(lastId);
+        checkpoint.setProcessedId(firstId);
+        checkpoint.setRunStartedAt(startedAt);
+        checkpoint.setCompleted(false);
+        return checkpoint;
+    }
+}
@@ -0,0 +1,80 @@
+package org.rubnikovich.bankoperation.service;
+
+import lombok.RequiredArgsConstructor;
+import org.rubnikovich.bankoperation.dto.TransactionDto;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+@RequiredArgsConstructor
+public class BatchTransferEngine {
+
+    private final TransferEngine transferEngine;
+    private final Ledger ledger;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${transfer.batch.chunk-size}")
+    private int chunkSize;
+
+    public List<TransferStatus> transfer(long senderId, List<TransactionDto> transfers) {
+        List<TransferStatus> statuses = new ArrayList<>(transfers.size());
+        for (int from = 0; from < transfers.size(); from += chunkSize) {
+            List<TransactionDto> chunk = transfers.subList(from, Math.min(from + chunkSize, transfers.size()));
+            statuses.addAll(transferEngine.executeWithRetry(status -> transferChunk(senderId, chunk)));
+        }
+        return statuses;
+    }
+
+    private List<TransferStatus> transferChunk(long senderId, List<TransactionDto> chunk) {
+        Map<Long, Money> balances = lockBalances(senderId, chunk);
+        Money senderBalance = balances.get(senderId);
+        if (senderBalance == null) {
+            return Collections.nCopies(chunk.size(), TransferStatus.USER_NOT_FOUND);
+        }
+        List<TransferStatus> statuses = new ArrayList<>(chunk.size());
+        List<Object[]> entries = new ArrayList<>(chunk.size() * 2);
+        List<Object[]> inserts = new ArrayList<>(chunk.size());
+        Timestamp date = Timestamp.valueOf(LocalDateTime.now());
+        for (TransactionDto transfer : chunk) {
+            long recipientId = transfer.getRecipientId();
+            Money amount = Money.ofOrNull(transfer.getAmount());
+            TransferStatus status;
+            if (recipientId == senderId) {
+                status = TransferStatus.SAME_ACCOUNT;
+            } else if (!balances.containsKey(recipientId)) {
+                status = TransferStatus.USER_NOT_FOUND;
+            } else if (amount == null || amount.signum() < 0 || senderBalance.isLessThan(amount)) {
+                status = TransferStatus.INSUFFICIENT_FUNDS;
+            } else {
+                senderBalance = senderBalance.minus(amount);
+                Ledger.addTransfer(entries, senderId, recipientId, amount, date);
+                inserts.add(new Object[]{senderId, recipientId, amount.toBigDecimal(), date});
+                status = TransferStatus.COMPLETED;
+            }
+            statuses.add(status);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(TransferEngine.INSERT_TRANSACTION, inserts);
+            ledger.append(entries);
+        }
+        return statuses;
+    }
+
+    private Map<Long, Money> lockBalances(long senderId, List<TransactionDto> chunk) {
+        Set<Long> ids = new TreeSet<>();
+        ids.add(senderId);
+        chunk.forEach(transfer -> ids.add(transfer.getRecipientId()));
+        return ledger.lockBalances(ids);
+    }
+}
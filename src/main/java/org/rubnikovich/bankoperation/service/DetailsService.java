@@ -1,23 +1,55 @@
 package org.rubnikovich.bankoperation.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.rubnikovich.bankoperation.entity.User;
 import org.rubnikovich.bankoperation.repository.UserRepository;
 import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import static org.rubnikovich.bankoperation.config.ApiConstant.PASSWORD_REHASHED;
 import static org.rubnikovich.bankoperation.config.ApiConstant.USER_NOT_FOUND;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
-public class DetailsService implements UserDetailsService {
+public class DetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository repository;
+    private final MeterRegistry meterRegistry;
+    private AsyncCache<PrincipalKey, UsersDetails> principals;
+
+    @Value("${token.principal-cache.max-size}")
+    private long maxSize;
+
+    @Value("${token.principal-cache.ttl-ms}")
+    private long ttlMillis;
+
+    @PostConstruct
+    public void buildCache() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals.synchronous(), "principals");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String login) throws UsernameNotFoundException {
@@ -27,5 +59,48 @@ public class DetailsService implements UserDetailsService {
         }
         return new UsersDetails(user.get());
     }
-}
 
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UsersDetails details = (UsersDetails) user;
+        repository.updatePassword(details.getUsername(), newPassword);
+        log.info(PASSWORD_REHASHED, details.getUsername());
+        return new UsersDetails(details.getId(), details.getUsername(), newPassword);
+    }
+
+    // The cache only installs an empty future under its compute lock; the caller that installed it runs the
+    // query, concurrent lookups of the same key join it. Eviction drops in-flight futures, so a load racing
+    // a delete is never put back. A null result (unknown login) is removed from the cache by Caffeine.
+    public UsersDetails loadPrincipal(String login, String tokenId) throws UsernameNotFoundException {
+        CompletableFuture<UsersDetails> load = new CompletableFuture<>();
+        CompletableFuture<UsersDetails> principal =
+                principals.get(new PrincipalKey(login, tokenId), (key, executor) -> load);
+        if (principal == load) {
+            try {
+                load.complete(repository.findPrincipalByLogin(login)
+                        .map(user -> new UsersDetails(user.id(), user.login()))
+                        .orElse(null));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+            }
+        }
+        UsersDetails details;
+        try {
+            details = principal.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (details == null) {
+            throw new UsernameNotFoundException(USER_NOT_FOUND);
+        }
+        return details;
+    }
+
+    public void evictPrincipals(String login) {
+        principals.asMap().keySet().removeIf(key -> key.login().equals(login));
+    }
+
+    private record PrincipalKey(String login, String tokenId) {
+    }
+}
@@ -6,9 +6,10 @@ import org.rubnikovich.bankoperation.dto.EmailUpdateDto;
 import org.rubnikovich.bankoperation.dto.UserEmailDto;
 import org.rubnikovich.bankoperation.entity.User;
 import org.rubnikovich.bankoperation.entity.UserEmail;
+import org.rubnikovich.bankoperation.mapper.ContactMapper;
 import org.rubnikovich.bankoperation.repository.EmailRepository;
 import org.rubnikovich.bankoperation.repository.UserRepository;
-import org.rubnikovich.bankoperation.security.JwtUtil;
+import org.rubnikovich.bankoperation.security.UsersDetails;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -28,89 +29,72 @@ public class EmailService {
 
     private final EmailRepository emailRepository;
     private final UserRepository userRepository;
-    private final UserService userService;
-    private final JwtUtil jwtUtil;
+    private final ContactMapper contactMapper;
 
-    public boolean emailExists(String email) {
-        return emailRepository.existsByEmail(email);
-    }
-
-    public ResponseEntity<List<String>> getAllUserEmails(String token) {
-        String login = jwtUtil.getLogin(token);
-        Long userId = userService.getUserIdByLogin(login);
-        List<UserEmail> emails = emailRepository.findAllByUserId(userId);
+    public ResponseEntity<List<String>> getAllUserEmails(UsersDetails principal) {
+        List<UserEmail> emails = emailRepository.findAllByUserId(principal.getId());
         List<String> emailStrings = emails.stream()
                 .map(UserEmail::getEmail)
                 .collect(Collectors.toList());
-        log.info(EMAILS + emails.size());
+        log.info(EMAILS, emails.size());
         return ResponseEntity.ok(emailStrings);
     }
 
-    public ResponseEntity<String> emailAdd(String token, UserEmailDto emailDto, BindingResult bindingResult) {
+    public ResponseEntity<String> emailAdd(UsersDetails principal, UserEmailDto emailDto, BindingResult bindingResult) {
         ResponseEntity<String> errorResponse = handleBindingErrors(bindingResult, FAILED_ADD_EMAIL);
         if (errorResponse != null) {
             return errorResponse;
         }
-        String login = jwtUtil.getLogin(token);
-        User user = userService.getByLogin(login);
+        User user = userRepository.getReferenceById(principal.getId());
         if (emailRepository.existsByEmail(emailDto.getEmail())) {
-            log.warn(FAILED_ADD_EMAIL + emailDto.getEmail());
+            log.warn(EMAIL_EXISTS_LOG, emailDto.getEmail(), principal.getUsername());
             return ResponseEntity.badRequest().body(FAILED_ADD_EMAIL + ALREADY_EXISTS);
         }
-        UserEmail email = new UserEmail();
-        email.setUser(user);
-        email.setEmail(emailDto.getEmail());
+        UserEmail email = contactMapper.toUserEmail(emailDto, user);
         emailRepository.save(email);
-        log.info(EMAIL_ADDED + emailDto.getEmail());
+        log.info(EMAIL_ADDED_LOG, emailDto.getEmail(), principal.getUsername());
         return ResponseEntity.ok().body(EMAIL_ADDED);
     }
 
-    public ResponseEntity<String> emailUpdate(String token, EmailUpdateDto updateDto,
+    public ResponseEntity<String> emailUpdate(UsersDetails principal, EmailUpdateDto updateDto,
                                               BindingResult bindingResult) {
         ResponseEntity<String> errorResponse = handleBindingErrors(bindingResult, FAILED_UPDATED_EMAIL);
         if (errorResponse != null) {
             return errorResponse;
         }
-        String login = jwtUtil.getLogin(token);
-        Long userId = userService.getUserIdByLogin(login);
-        updateDto.setUserId(userId);
+        updateDto.setUserId(principal.getId());
         if (!emailRepository.existsByEmail(updateDto.getCurrentEmail().getEmail()) ||
                 emailRepository.existsByEmail(updateDto.getNewEmail().getEmail())) {
-            log.info(FAILED_UPDATED_EMAIL);
+            log.info(FAILED_UPDATE_EMAIL_LOG, updateDto.getCurrentEmail().getEmail(),
+                    updateDto.getNewEmail().getEmail(), principal.getUsername());
             return ResponseEntity.badRequest().body(FAILED_UPDATED_EMAIL);
         }
         UserEmail currentEmail = emailRepository.findByEmail(updateDto.getCurrentEmail().getEmail());
         UserEmail email = convertToUserEmail(updateDto);
         email.setId(currentEmail.getId());
         emailRepository.save(email);
-        log.info(EMAIL_UPDATED + updateDto.getCurrentEmail().getEmail(),
-                updateDto.getNewEmail().getEmail(), login);
+        log.info(EMAIL_UPDATED_LOG, updateDto.getCurrentEmail().getEmail(),
+                updateDto.getNewEmail().getEmail(), principal.getUsername());
         return ResponseEntity.ok().body(EMAIL_UPDATED);
     }
 
     @Transactional
-    public ResponseEntity<String> emailDelete(String token, UserEmailDto emailDto) {
-        String login = jwtUtil.getLogin(token);
-        Long userId = userService.getUserIdByLogin(login);
+    public ResponseEntity<String> emailDelete(UsersDetails principal, UserEmailDto emailDto) {
         String emailStr = emailDto.getEmail();
-        List<UserEmail> emails = emailRepository.findAllByUserId(userId);
+        List<UserEmail> emails = emailRepository.findAllByUserId(principal.getId());
         List<String> emailStrings = emails.stream().map(UserEmail::getEmail).toList();
         if (emailStrings.contains(emailStr)) {
             emailRepository.deleteByEmail(emailStr);
-            log.info(DELETED + emailStr);
+            log.info(EMAIL_DELETED_LOG, emailStr, principal.getUsername());
             return ResponseEntity.ok().body(DELETED + emailStr);
         }
-        log.warn(FAILED_DELETE_EMAIL + emailStr, login);
+        log.warn(FAILED_DELETE_EMAIL_LOG, emailStr, principal.getUsername());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(NOT_FOUND + emailStr);
     }
 
     private UserEmail convertToUserEmail(EmailUpdateDto updateDto) {
-        UserEmail email = new UserEmail();
-        User user = userRepository.findById(updateDto.getUserId()).orElseThrow();
-        email.setUser(user);
-        email.setEmail(updateDto.getNewEmail().getEmail());
-        email.setId(email.getId());
-        return email;
+        User user = userRepository.getReferenceById(updateDto.getUserId());
+        return contactMapper.toUserEmail(updateDto.getNewEmail(), user);
     }
 
     private ResponseEntity<String> handleBindingErrors(BindingResult bindingResult, String message) {
@@ -118,7 +102,7 @@ public class EmailService {
             String errors = bindingResult.getFieldErrors().stream()
                     .map(FieldError::getDefaultMessage)
                     .collect(Collectors.joining(". "));
-            log.warn(message + errors);
+            log.warn("{}{}", message, errors);
             return ResponseEntity.badRequest().body(message + errors);
         }
         return null;
@@ -0,0 +1,47 @@
+package org.rubnikovich.bankoperation.service;
+
+import lombok.RequiredArgsConstructor;
+import org.rubnikovich.bankoperation.entity.AccrualCheckpoint;
+import org.rubnikovich.bankoperation.repository.AccrualCheckpointRepository;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@RequiredArgsConstructor
+public class InterestAccrualEngine {
+
+    private final UserRepository userRepository;
+    private final AccrualCheckpointRepository checkpointRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${accrual.chunk-size}")
+    private int chunkSize;
+
+    public long accrueShard(AccrualCheckpoint checkpoint) {
+        int shard = checkpoint.getShard();
+        long lastId = checkpoint.getLastId();
+        long afterId = checkpoint.getProcessedId();
+        long rows = 0;
+        Long upToId = userRepository.findChunkUpperBound(afterId, lastId, chunkSize);
+        while (upToId != null) {
+            rows += accrueChunk(shard, afterId, upToId);
+            afterId = upToId;
+            upToId = userRepository.findChunkUpperBound(afterId, lastId, chunkSize);
+        }
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.markCompleted(shard));
+        return rows;
+    }
+
+    private int accrueChunk(int shard, long afterId, long upToId) {
+        Integer updated = transactionTemplate.execute(status -> {
+            checkpointRepository.advance(shard, upToId);
+            userRepository.lockRange(afterId, upToId);
+            return ledgerEntryRepository.accrueInterest(afterId, upToId);
+        });
+        return updated == null ? 0 : updated;
+    }
+}
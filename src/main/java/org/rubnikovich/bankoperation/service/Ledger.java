@@ -0,0 +1,55 @@
+package org.rubnikovich.bankoperation.service;
+
+import lombok.RequiredArgsConstructor;
+import org.rubnikovich.bankoperation.entity.LedgerEntryType;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.rubnikovich.bankoperation.repository.LedgerEntryRepository.ACCOUNT_BALANCE;
+
+// balance = users.balance snapshot + entries after users.ledger_entry_id, folded in by LedgerCompactor
+@Component
+@RequiredArgsConstructor
+public class Ledger {
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO ledger_entry (account_id, entry_type, amount, created_at) VALUES (?, ?, ?, ?)";
+    private static final String LOCK_ACCOUNTS = "SELECT id FROM users WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+    private static final String SELECT_BALANCES =
+            "SELECT u.id, " + ACCOUNT_BALANCE + " AS balance FROM users u WHERE u.id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // balances are read by a second statement, so under read committed they see the previous lock holder's entries
+    public Map<Long, Money> lockBalances(Collection<Long> ids) {
+        Map<String, Collection<Long>> params = Map.of("ids", ids);
+        namedParameterJdbcTemplate.queryForList(LOCK_ACCOUNTS, params, Long.class);
+        Map<Long, Money> balances = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_BALANCES, params,
+                rs -> {
+                    balances.put(rs.getLong("id"), Money.of(rs.getBigDecimal("balance")));
+                });
+        return balances;
+    }
+
+    public void append(List<Object[]> entries) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+    }
+
+    public static void addTransfer(List<Object[]> entries, long senderId, long recipientId, Money amount,
+                                   Timestamp date) {
+        BigDecimal credit = amount.toBigDecimal();
+        entries.add(new Object[]{senderId, LedgerEntryType.DEBIT.name(), credit.negate(), date});
+        entries.add(new Object[]{recipientId, LedgerEntryType.CREDIT.name(), credit, date});
+    }
+}
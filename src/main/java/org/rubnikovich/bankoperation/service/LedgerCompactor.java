@@ -0,0 +1,53 @@
+package org.rubnikovich.bankoperation.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.LEDGER_COMPACTED;
+
+// each run folds the entries appended since the run before the previous one, so an entry still uncommitted
+// during one run is picked up by the next; folding past ledger_entry_id is idempotent
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LedgerCompactor {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private long previousMaxId;
+    private long lastMaxId;
+
+    @Value("${ledger.compaction.chunk-size}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${ledger.compaction.interval-ms}")
+    public void compact() {
+        Long maxId = ledgerEntryRepository.findMaxId();
+        if (maxId == null) {
+            return;
+        }
+        List<Long> accounts = ledgerEntryRepository.findAccountsWithEntries(previousMaxId, maxId);
+        for (int from = 0; from < accounts.size(); from += chunkSize) {
+            List<Long> chunk = accounts.subList(from, Math.min(from + chunkSize, accounts.size()));
+            // rows are locked in ascending id order first, like transfers and accrual, so the update cannot deadlock
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.lockAccounts(chunk);
+                ledgerEntryRepository.compact(chunk);
+            });
+        }
+        previousMaxId = lastMaxId;
+        lastMaxId = maxId;
+        if (!accounts.isEmpty()) {
+            log.debug(LEDGER_COMPACTED, accounts.size());
+        }
+    }
+}
@@ -6,9 +6,10 @@ import org.rubnikovich.bankoperation.dto.PhoneUpdateDto;
 import org.rubnikovich.bankoperation.dto.UserPhoneNumberDto;
 import org.rubnikovich.bankoperation.entity.User;
 import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
+import org.rubnikovich.bankoperation.mapper.ContactMapper;
 import org.rubnikovich.bankoperation.repository.PhoneRepository;
 import org.rubnikovich.bankoperation.repository.UserRepository;
-import org.rubnikovich.bankoperation.security.JwtUtil;
+import org.rubnikovich.bankoperation.security.UsersDetails;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -28,89 +29,72 @@ public class PhoneService {
 
     private final PhoneRepository phoneRepository;
     private final UserRepository userRepository;
-    private final UserService userService;
-    private final JwtUtil jwtUtil;
+    private final ContactMapper contactMapper;
 
-    public boolean phoneExists(String phone) {
-        return phoneRepository.existsByPhone(phone);
-    }
-
-    public ResponseEntity<List<String>> getAllUserPhones(String token) {
-        String login = jwtUtil.getLogin(token);
-        Long userId = userService.getUserIdByLogin(login);
-        List<UserPhoneNumber> phones = phoneRepository.findAllByUserId(userId);
+    public ResponseEntity<List<String>> getAllUserPhones(UsersDetails principal) {
+        List<UserPhoneNumber> phones = phoneRepository.findAllByUserId(principal.getId());
         List<String> phoneStrings = phones.stream()
                 .map(UserPhoneNumber::getPhone)
                 .collect(Collectors.toList());
-        log.info(PHONES + phones.size());
+        log.info(PHONES, phones.size());
         return ResponseEntity.ok(phoneStrings);
     }
 
-    public ResponseEntity<String> phoneAdd(String token, UserPhoneNumberDto phoneDto, BindingResult bindingResult) {
+    public ResponseEntity<String> phoneAdd(UsersDetails principal, UserPhoneNumberDto phoneDto, BindingResult bindingResult) {
         ResponseEntity<String> errorResponse = handleBindingErrors(bindingResult, FAILED_ADD_PHONE);
         if (errorResponse != null) {
             return errorResponse;
         }
-        String login = jwtUtil.getLogin(token);
-        User user = userService.getByLogin(login);
+        User user = userRepository.getReferenceById(principal.getId());
         if (phoneRepository.existsByPhone(phoneDto.getPhone())) {
-            log.warn(FAILED_ADD_PHONE + phoneDto.getPhone());
+            log.warn(PHONE_EXISTS_LOG, phoneDto.getPhone(), principal.getUsername());
             return ResponseEntity.badRequest().body(FAILED_ADD_PHONE + ALREADY_EXISTS);
         }
-        UserPhoneNumber phone = new UserPhoneNumber();
-        phone.setUser(user);
-        phone.setPhone(phoneDto.getPhone());
+        UserPhoneNumber phone = contactMapper.toUserPhone(phoneDto, user);
         phoneRepository.save(phone);
-        log.info(PHONE_ADDED + phoneDto.getPhone());
+        log.info(PHONE_ADDED_LOG, phoneDto.getPhone(), principal.getUsername());
         return ResponseEntity.ok().body(PHONE_ADDED);
     }
 
-    public ResponseEntity<String> phoneUpdate(String token, PhoneUpdateDto updateDto,
+    public ResponseEntity<String> phoneUpdate(UsersDetails principal, PhoneUpdateDto updateDto,
                                               BindingResult bindingResult) {
         ResponseEntity<String> errorResponse = handleBindingErrors(bindingResult, FAILED_UPDATED_PHONE);
         if (errorResponse != null) {
             return errorResponse;
         }
-        String login = jwtUtil.getLogin(token);
-        Long userId = userService.getUserIdByLogin(login);
-        updateDto.setUserId(userId);
+        updateDto.setUserId(principal.getId());
         if (!phoneRepository.existsByPhone(updateDto.getCurrentPhone().getPhone()) ||
                 phoneRepository.existsByPhone(updateDto.getNewPhone().getPhone())) {
-            log.info(FAILED_UPDATED_PHONE);
+            log.info(FAILED_UPDATE_PHONE_LOG, updateDto.getCurrentPhone().getPhone(),
+                    updateDto.getNewPhone().getPhone(), principal.getUsername());
             return ResponseEntity.badRequest().body(FAILED_UPDATED_PHONE);
         }
         UserPhoneNumber currentPhone = phoneRepository.findByPhone(updateDto.getCurrentPhone().getPhone());
         UserPhoneNumber phone = convertToUserPhone(updateDto);
         phone.setId(currentPhone.getId());
         phoneRepository.save(phone);
-        log.info(PHONE_UPDATED + updateDto.getCurrentPhone().getPhone(),
-                updateDto.getNewPhone().getPhone(), login);
+        log.info(PHONE_UPDATED_LOG, updateDto.getCurrentPhone().getPhone(),
+                updateDto.getNewPhone().getPhone(), principal.getUsername());
         return ResponseEntity.ok().body(PHONE_UPDATED);
     }
 
     @Transactional
-    public ResponseEntity<String> phoneDelete(String token, UserPhoneNumberDto phoneDto) {
-        String login = jwtUtil.getLogin(token);
-        Long userId = userService.getUserIdByLogin(login);
+    public ResponseEntity<String> phoneDelete(UsersDetails principal, UserPhoneNumberDto phoneDto) {
         String phoneStr = phoneDto.getPhone();
-        List<UserPhoneNumber> phones = phoneRepository.findAllByUserId(userId);
+        List<UserPhoneNumber> phones = phoneRepository.findAllByUserId(principal.getId());
         List<String> phoneStrings = phones.stream().map(UserPhoneNumber::getPhone).toList();
         if (phoneStrings.contains(phoneStr)) {
             phoneRepository.deleteByPhone(phoneStr);
-            log.info(DELETED + phoneStr);
+            log.info(PHONE_DELETED_LOG, phoneStr, principal.getUsername());
             return ResponseEntity.ok().body(DELETED + phoneStr);
         }
-        log.warn(FAILED_DELETE_PHONE + phoneStr);
+        log.warn(FAILED_DELETE_PHONE_LOG, phoneStr, principal.getUsername());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(NOT_FOUND + phoneStr);
     }
 
     private UserPhoneNumber convertToUserPhone(PhoneUpdateDto updateDto) {
-        UserPhoneNumber phone = new UserPhoneNumber();
-        User user = userRepository.findById(updateDto.getUserId()).orElseThrow();
-        phone.setUser(user);
-        phone.setPhone(updateDto.getNewPhone().getPhone());
-        phone.setId(phone.getId());
-        return phone;
+        User user = userRepository.getReferenceById(updateDto.getUserId());
+        return contactMapper.toUserPhone(updateDto.getNewPhone(), user);
     }
 
     private ResponseEntity<String> handleBindingErrors(BindingResult bindingResult, String message) {
@@ -118,7 +102,7 @@ public class PhoneService {
             String errors = bindingResult.getFieldErrors().stream()
                     .map(FieldError::getDefaultMessage)
                     .collect(Collectors.joining(". "));
-            log.warn(message + errors);
+            log.warn("{}{}", message, errors);
             return ResponseEntity.badRequest().body(message + errors);
         }
         return null;
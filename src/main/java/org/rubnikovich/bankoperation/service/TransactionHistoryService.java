@@ -0,0 +1,166 @@
+package org.rubnikovich.bankoperation.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rubnikovich.bankoperation.dto.TransactionCursor;
+import org.rubnikovich.bankoperation.dto.TransactionDto;
+import org.rubnikovich.bankoperation.dto.TransactionPageDto;
+import org.rubnikovich.bankoperation.repository.TransactionRepository;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.INVALID_CURSOR;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final Comparator<TransactionDto> NEWEST_FIRST = Comparator
+            .comparing(TransactionDto::getDate).thenComparingLong(TransactionDto::getId).reversed();
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${history.max-page-size}")
+    private int maxPageSize;
+
+    public ResponseEntity<TransactionPageDto> getAllTransactions(LocalDateTime from, LocalDateTime to,
+                                                                 String cursor, int size) {
+        TransactionCursor position;
+        try {
+            position = startOf(to, cursor);
+        } catch (IllegalArgumentException e) {
+            log.warn(INVALID_CURSOR, cursor);
+            return ResponseEntity.badRequest().build();
+        }
+        int limit = pageSize(size);
+        List<TransactionDto> transactions = transactionRepository.findHistoryPage(orEarliest(from),
+                position.date(), position.id(), Limit.of(limit + 1));
+        return ResponseEntity.ok().body(toPage(transactions, limit));
+    }
+
+    public ResponseEntity<TransactionPageDto> getAllUserTransactions(UsersDetails principal, LocalDateTime from,
+                                                                     LocalDateTime to, String cursor, int size) {
+        TransactionCursor position;
+        try {
+            position = startOf(to, cursor);
+        } catch (IllegalArgumentException e) {
+            log.warn(INVALID_CURSOR, cursor);
+            return ResponseEntity.badRequest().build();
+        }
+        long userId = principal.getId();
+        int limit = pageSize(size);
+        List<TransactionDto> sent = transactionRepository.findSentPage(userId, orEarliest(from),
+                position.date(), position.id(), Limit.of(limit + 1));
+        List<TransactionDto> received = transactionRepository.findReceivedPage(userId, orEarliest(from),
+                position.date(), position.id(), Limit.of(limit + 1));
+        List<TransactionDto> transactions = new ArrayList<>(limit + 1);
+        Iterator<TransactionDto> merged = newestFirst(sent.iterator(), received.iterator());
+        while (merged.hasNext() && transactions.size() <= limit) {
+            transactions.add(merged.next());
+        }
+        return ResponseEntity.ok().body(toPage(transactions, limit));
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamUserTransactions(UsersDetails principal, LocalDateTime from,
+                                                                        LocalDateTime to) {
+        long userId = principal.getId();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        StreamingResponseBody body = outputStream -> readOnly.executeWithoutResult(status -> {
+            LocalDateTime until = to == null ? LATEST : to;
+            try (Stream<TransactionDto> sent = transactionRepository.streamSentHistory(userId, orEarliest(from), until);
+                 Stream<TransactionDto> received = transactionRepository.streamReceivedHistory(userId,
+                         orEarliest(from), until)) {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+                generator.setRootValueSeparator(null);
+                Iterator<TransactionDto> iterator = newestFirst(sent.iterator(), received.iterator());
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private static Iterator<TransactionDto> newestFirst(Iterator<TransactionDto> first,
+                                                        Iterator<TransactionDto> second) {
+        return new Iterator<>() {
+            private TransactionDto left = first.hasNext() ? first.next() : null;
+            private TransactionDto right = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return left != null || right != null;
+            }
+
+            @Override
+            public TransactionDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int order = left == null ? 1 : right == null ? -1 : NEWEST_FIRST.compare(left, right);
+                TransactionDto next = order <= 0 ? left : right;
+                if (order <= 0) {
+                    left = first.hasNext() ? first.next() : null;
+                }
+                if (order >= 0) {
+                    right = second.hasNext() ? second.next() : null;
+                }
+                return next;
+            }
+        };
+    }
+
+    private TransactionCursor startOf(LocalDateTime to, String cursor) {
+        if (cursor != null) {
+            return TransactionCursor.decode(cursor);
+        }
+        return new TransactionCursor(to == null ? LATEST : to, 0L);
+    }
+
+    private LocalDateTime orEarliest(LocalDateTime from) {
+        return from == null ? EARLIEST : from;
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private TransactionPageDto toPage(List<TransactionDto> transactions, int limit) {
+        if (transactions.size() <= limit) {
+            return new TransactionPageDto(transactions, null);
+        }
+        List<TransactionDto> page = transactions.subList(0, limit);
+        TransactionDto last = page.get(limit - 1);
+        return new TransactionPageDto(page, new TransactionCursor(last.getDate(), last.getId()).encode());
+    }
+}
@@ -1,104 +1,103 @@
 package org.rubnikovich.bankoperation.service;
 
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.rubnikovich.bankoperation.dto.TransactionDto;
-import org.rubnikovich.bankoperation.entity.Transaction;
-import org.rubnikovich.bankoperation.entity.User;
-import org.rubnikovich.bankoperation.repository.TransactionRepository;
-import org.rubnikovich.bankoperation.repository.UserRepository;
-import org.rubnikovich.bankoperation.security.JwtUtil;
+import org.rubnikovich.bankoperation.dto.TransactionResultDto;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
 
 import static org.rubnikovich.bankoperation.config.ApiConstant.*;
+import static org.rubnikovich.bankoperation.config.SamplingTurboFilter.SAMPLED;
 
 @Service
 @Slf4j
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class TransactionService {
 
-    private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
+    private static final String TRANSFER_TIMER = "bank.transfers";
+    private static final String BATCH_TIMER = "bank.transfers.batch";
+    private static final String BATCH_ITEMS = "bank.transfers.batch.items";
 
-    public ResponseEntity<List<TransactionDto>> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAll();
-        List<TransactionDto> transactionsDto = transactions.stream()
-                .map(this::toTransactionDto)
-                .collect(Collectors.toList());
-        return transactions.isEmpty() ?
-                ResponseEntity.notFound().build() : ResponseEntity.ok().body(transactionsDto);
-    }
+    private final TransferEngine transferEngine;
+    private final ObjectProvider<TransferSequencer> transferSequencer;
+    private final BatchTransferEngine batchTransferEngine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transfer.batch.max-items}")
+    private int maxBatchItems;
 
-    public ResponseEntity<List<TransactionDto>> getAllUserTransactions(String token) {
-        String login = jwtUtil.getLogin(token);
-        User user = userRepository.findByLogin(login).orElseThrow();
-        Long id = user.getId();
-        List<Transaction> transactions = transactionRepository.getAllByRecipientIdOrSenderId(id, id);
-        List<TransactionDto> transactionsDto = transactions.stream()
-                .map(this::toTransactionDto)
-                .collect(Collectors.toList());
-        return transactions.isEmpty() ?
-                ResponseEntity.notFound().build() : ResponseEntity.ok().body(transactionsDto);
+    public ResponseEntity<String> makeTransaction(TransactionDto transactionDto, UsersDetails principal) {
+        transactionDto.setSender(principal.getId());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Money amount = Money.ofOrNull(transactionDto.getAmount());
+        TransferStatus status = amount == null ? TransferStatus.INSUFFICIENT_FUNDS
+                : transfer(transactionDto.getSender(), transactionDto.getRecipientId(), amount);
+        sample.stop(meterRegistry.timer(TRANSFER_TIMER, "status", status.name()));
+        if (status == TransferStatus.COMPLETED) {
+            log.info(SAMPLED, TRANSACTION_SUCCESSFULLY);
+            return ResponseEntity.ok().body(TRANSACTION_SUCCESSFULLY);
+        }
+        String message = toFailureMessage(status);
+        log.warn(message);
+        return ResponseEntity.badRequest().body(message);
     }
 
-    public ResponseEntity<String> makeTransaction(TransactionDto transactionDto, String token) {
-        String login = jwtUtil.getLogin(token);
-        User sender;
-        User recipient;
-        try {
-            sender = userRepository.findByLogin(login)
-                    .orElseThrow(() -> new NoSuchElementException(USER_NOT_FOUND));
-            transactionDto.setSender(sender.getId());
-            recipient = userRepository.findById(transactionDto.getRecipientId())
-                    .orElseThrow(() -> new NoSuchElementException(USER_NOT_FOUND));
-        } catch (NoSuchElementException e) {
-            log.warn(USER_NOT_FOUND);
-            return ResponseEntity.badRequest()
-                    .body(TRANSACTION_FAILED + USER_NOT_FOUND);
+    public ResponseEntity<List<TransactionResultDto>> makeTransactions(List<TransactionDto> transactionDtos,
+                                                                       UsersDetails principal) {
+        if (transactionDtos.size() > maxBatchItems) {
+            log.warn(TRANSACTION_BATCH_TOO_LARGE, maxBatchItems);
+            return ResponseEntity.badRequest().build();
         }
-        BigDecimal senderMoney = sender.getBalance();
-        BigDecimal recipientMoney = recipient.getBalance();
-        BigDecimal amount = transactionDto.getAmount();
-        BigDecimal result = senderMoney.subtract(amount);
-        if (result.compareTo(BigDecimal.ZERO) < 0 ||
-                amount.compareTo(BigDecimal.ZERO) < 0) {
-            log.warn(TRANSACTION_FAILED_BALANCE);
-            return ResponseEntity.badRequest()
-                    .body(TRANSACTION_FAILED_BALANCE);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<TransferStatus> statuses = batchTransferEngine.transfer(principal.getId(), transactionDtos);
+        sample.stop(meterRegistry.timer(BATCH_TIMER));
+        List<TransactionResultDto> results = new ArrayList<>(statuses.size());
+        long completed = 0;
+        for (int i = 0; i < statuses.size(); i++) {
+            results.add(toTransactionResult(i, transactionDtos.get(i), statuses.get(i)));
+            meterRegistry.counter(BATCH_ITEMS, "status", statuses.get(i).name()).increment();
+            if (statuses.get(i) == TransferStatus.COMPLETED) {
+                completed++;
+            }
         }
-        sender.setBalance(senderMoney.subtract(amount));
-        recipient.setBalance(recipientMoney.add(amount));
-        Transaction transaction = toTransactions(transactionDto);
-        transactionRepository.save(transaction);
-        userRepository.save(recipient);
-        userRepository.save(sender);
-        log.info(TRANSACTION_SUCCESSFULLY);
-        return ResponseEntity.ok().body(TRANSACTION_SUCCESSFULLY);
+        log.info(TRANSACTION_BATCH_COMPLETED, completed, statuses.size());
+        return ResponseEntity.ok().body(results);
     }
 
-    private TransactionDto toTransactionDto(Transaction transaction) {
-        TransactionDto transactionDto = new TransactionDto();
-        transactionDto.setAmount(transaction.getAmount());
-        transactionDto.setDate(transaction.getDate());
-        transactionDto.setId(transaction.getId());
-        transactionDto.setSender(transaction.getSender().getId());
-        transactionDto.setRecipientId(transaction.getRecipient().getId());
-        return transactionDto;
+    private TransactionResultDto toTransactionResult(int index, TransactionDto transactionDto,
+                                                     TransferStatus status) {
+        return TransactionResultDto.builder()
+                .index(index)
+                .recipientId(transactionDto.getRecipientId())
+                .amount(transactionDto.getAmount())
+                .status(status.name())
+                .message(status == TransferStatus.COMPLETED ? TRANSACTION_SUCCESSFULLY : toFailureMessage(status))
+                .build();
+    }
+
+    private TransferStatus transfer(long senderId, long recipientId, Money amount) {
+        TransferSequencer sequencer = transferSequencer.getIfAvailable();
+        if (sequencer != null) {
+            return sequencer.submit(senderId, recipientId, amount).join();
+        }
+        return transferEngine.transfer(senderId, recipientId, amount);
     }
 
-    private Transaction toTransactions(TransactionDto transactionDto) {
-        Transaction transaction = new Transaction();
-        transaction.setAmount(transactionDto.getAmount());
-        transaction.setDate(transactionDto.getDate());
-        transaction.setSender(userRepository.findById(transactionDto.getSender()).orElseThrow());
-        transaction.setRecipient(userRepository.findById(transactionDto.getRecipientId()).orElseThrow());
-        return transaction;
+    private String toFailureMessage(TransferStatus status) {
+        return switch (status) {
+            case USER_NOT_FOUND -> TRANSACTION_FAILED + USER_NOT_FOUND;
+            case SAME_ACCOUNT -> TRANSACTION_FAILED_SAME_ACCOUNT;
+            default -> TRANSACTION_FAILED_BALANCE;
+        };
     }
 }
@@ -0,0 +1,90 @@
+package org.rubnikovich.bankoperation.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.TRANSFER_RETRY;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TransferEngine {
+
+    static final String INSERT_TRANSACTION =
+            "INSERT INTO transaction (sender_id, recipient_id, amount, date) VALUES (?, ?, ?, ?)";
+
+    private final Ledger ledger;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${transfer.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${transfer.backoff-ms}")
+    private long backoffMillis;
+
+    public TransferStatus transfer(long senderId, long recipientId, Money amount) {
+        if (senderId == recipientId) {
+            return TransferStatus.SAME_ACCOUNT;
+        }
+        if (amount.signum() < 0) {
+            return TransferStatus.INSUFFICIENT_FUNDS;
+        }
+        return executeWithRetry(status -> doTransfer(senderId, recipientId, amount));
+    }
+
+    <T> T executeWithRetry(TransactionCallback<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn(TRANSFER_RETRY, attempt);
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private TransferStatus doTransfer(long senderId, long recipientId, Money amount) {
+        // accounts are locked in ascending id order, so two opposite transfers cannot deadlock
+        Map<Long, Money> balances = ledger.lockBalances(List.of(senderId, recipientId));
+        if (balances.size() < 2) {
+            return TransferStatus.USER_NOT_FOUND;
+        }
+        if (balances.get(senderId).isLessThan(amount)) {
+            return TransferStatus.INSUFFICIENT_FUNDS;
+        }
+        Timestamp date = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_TRANSACTION, senderId, recipientId, amount.toBigDecimal(), date);
+        List<Object[]> entries = new ArrayList<>(2);
+        Ledger.addTransfer(entries, senderId, recipientId, amount, date);
+        ledger.append(entries);
+        return TransferStatus.COMPLETED;
+    }
+
+    private void backoff(int attempt, ConcurrencyFailureException cause) {
+        long delay = backoffMillis * (1L << Math.min(attempt - 1, 10));
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
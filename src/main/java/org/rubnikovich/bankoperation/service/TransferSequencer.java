@@ -0,0 +1,317 @@
+package org.rubnikovich.bankoperation.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.LEDGER_OVERDRAFT;
+import static org.rubnikovich.bankoperation.config.ApiConstant.TRANSFER_BATCH_FALLBACK;
+
+@Component
+@ConditionalOnProperty(name = "transfer.mode", havingValue = "sequenced")
+@Slf4j
+@RequiredArgsConstructor
+public class TransferSequencer {
+
+    private final UserRepository userRepository;
+    private final TransferEngine transferEngine;
+    private final Ledger ledger;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingTransfer> pending = new LinkedBlockingQueue<>();
+    private final List<Map<Long, CachedBalance>> balances = new ArrayList<>();
+    private ExecutorService[] lanes;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @Value("${transfer.sequencer.lanes}")
+    private int laneCount;
+
+    @Value("${transfer.sequencer.batch-size}")
+    private int batchSize;
+
+    @Value("${transfer.sequencer.flush-interval-ms}")
+    private long flushIntervalMillis;
+
+    @Value("${transfer.sequencer.balance-ttl-ms}")
+    private long balanceTtlMillis;
+
+    @Value("${transfer.sequencer.max-cached-accounts}")
+    private int maxCachedAccounts;
+
+    @PostConstruct
+    public void start() {
+        CustomizableThreadFactory laneFactory = new CustomizableThreadFactory("transfer-lane-");
+        lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(laneFactory);
+            balances.add(new HashMap<>());
+        }
+        running = true;
+        flusher = new CustomizableThreadFactory("transfer-flusher-").newThread(this::flushLoop);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public CompletableFuture<TransferStatus> submit(long senderId, long recipientId, Money amount) {
+        if (senderId == recipientId) {
+            return CompletableFuture.completedFuture(TransferStatus.SAME_ACCOUNT);
+        }
+        if (amount.signum() < 0) {
+            return CompletableFuture.completedFuture(TransferStatus.INSUFFICIENT_FUNDS);
+        }
+        PendingTransfer transfer = new PendingTransfer(senderId, recipientId, amount);
+        laneOf(senderId).execute(() -> debit(transfer));
+        return transfer.result;
+    }
+
+    private void debit(PendingTransfer transfer) {
+        try {
+            CachedBalance sender = load(transfer.senderId);
+            if (sender == null) {
+                transfer.result.complete(TransferStatus.USER_NOT_FOUND);
+                return;
+            }
+            if (sender.cents < transfer.amount.cents()) {
+                transfer.result.complete(TransferStatus.INSUFFICIENT_FUNDS);
+                return;
+            }
+            sender.subtract(transfer.amount);
+            transfer.sender = sender.hold();
+            laneOf(transfer.recipientId).execute(() -> credit(transfer));
+        } catch (RuntimeException e) {
+            transfer.result.completeExceptionally(e);
+        }
+    }
+
+    private void credit(PendingTransfer transfer) {
+        try {
+            CachedBalance recipient = load(transfer.recipientId);
+            if (recipient == null) {
+                refund(transfer);
+                transfer.result.complete(TransferStatus.USER_NOT_FOUND);
+                return;
+            }
+            recipient.add(transfer.amount);
+            transfer.recipient = recipient.hold();
+            pending.add(transfer);
+        } catch (RuntimeException e) {
+            refund(transfer);
+            transfer.result.completeExceptionally(e);
+        }
+    }
+
+    private void refund(PendingTransfer transfer) {
+        CachedBalance sender = transfer.sender;
+        onLane(transfer.senderId, () -> sender.add(transfer.amount).release());
+    }
+
+    private void release(PendingTransfer transfer) {
+        CachedBalance sender = transfer.sender;
+        CachedBalance recipient = transfer.recipient;
+        onLane(transfer.senderId, sender::release);
+        onLane(transfer.recipientId, recipient::release);
+    }
+
+    private CachedBalance load(long accountId) {
+        Map<Long, CachedBalance> owned = balancesOf(accountId);
+        CachedBalance cached = owned.get(accountId);
+        long now = System.nanoTime();
+        // a balance with transfers not yet in the ledger must not be reloaded, the database lacks them
+        if (cached != null && (cached.held > 0 || !cached.stale
+                && now - cached.loadedAt < TimeUnit.MILLISECONDS.toNanos(balanceTtlMillis))) {
+            return cached;
+        }
+        Optional<BigDecimal> balance = userRepository.findBalanceById(accountId);
+        if (balance.isEmpty()) {
+            owned.remove(accountId);
+            return null;
+        }
+        if (owned.size() >= maxCachedAccounts) {
+            owned.values().removeIf(entry -> entry.held == 0);
+        }
+        cached = new CachedBalance(Money.of(balance.get()).cents(), now);
+        owned.put(accountId, cached);
+        return cached;
+    }
+
+    private void flushLoop() {
+        List<PendingTransfer> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                PendingTransfer first = pending.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingTransfer> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            log.warn(TRANSFER_BATCH_FALLBACK, batch.size(), e);
+            batch.forEach(this::invalidate);
+            batch.forEach(this::release);
+            batch.forEach(this::replay);
+            return;
+        }
+        batch.forEach(this::release);
+        batch.forEach(transfer -> transfer.result.complete(TransferStatus.COMPLETED));
+    }
+
+    private void write(List<PendingTransfer> batch) {
+        Map<Long, Money> deltas = new TreeMap<>();
+        for (PendingTransfer transfer : batch) {
+            deltas.merge(transfer.senderId, transfer.amount.negate(), Money::plus);
+            deltas.merge(transfer.recipientId, transfer.amount, Money::plus);
+        }
+        // accounts are locked in ascending id order, the same lock order TransferEngine uses
+        Map<Long, Money> balances = ledger.lockBalances(deltas.keySet());
+        deltas.forEach((id, delta) -> {
+            Money balance = balances.get(id);
+            if (balance == null || balance.plus(delta).signum() < 0) {
+                throw new IllegalStateException(LEDGER_OVERDRAFT + id);
+            }
+        });
+        Timestamp date = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>(batch.size());
+        List<Object[]> entries = new ArrayList<>(batch.size() * 2);
+        for (PendingTransfer transfer : batch) {
+            inserts.add(new Object[]{transfer.senderId, transfer.recipientId,
+                    transfer.amount.toBigDecimal(), date});
+            Ledger.addTransfer(entries, transfer.senderId, transfer.recipientId, transfer.amount, date);
+        }
+        jdbcTemplate.batchUpdate(TransferEngine.INSERT_TRANSACTION, inserts);
+        ledger.append(entries);
+    }
+
+    private void replay(PendingTransfer transfer) {
+        try {
+            transfer.result.complete(transferEngine.transfer(transfer.senderId,
+                    transfer.recipientId, transfer.amount));
+        } catch (RuntimeException e) {
+            transfer.result.completeExceptionally(e);
+        }
+    }
+
+    // later transfers may still hold these balances, so they are reloaded only once released
+    private void invalidate(PendingTransfer transfer) {
+        CachedBalance sender = transfer.sender;
+        CachedBalance recipient = transfer.recipient;
+        onLane(transfer.senderId, sender::invalidate);
+        onLane(transfer.recipientId, recipient::invalidate);
+    }
+
+    private void onLane(long accountId, Runnable task) {
+        try {
+            laneOf(accountId).execute(task);
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private ExecutorService laneOf(long accountId) {
+        return lanes[(int) Math.floorMod(accountId, (long) laneCount)];
+    }
+
+    private Map<Long, CachedBalance> balancesOf(long accountId) {
+        return balances.get((int) Math.floorMod(accountId, (long) laneCount));
+    }
+
+    private static final class PendingTransfer {
+
+        private final long senderId;
+        private final long recipientId;
+        private final Money amount;
+        private final CompletableFuture<TransferStatus> result = new CompletableFuture<>();
+        private CachedBalance sender;
+        private CachedBalance recipient;
+
+        private PendingTransfer(long senderId, long recipientId, Money amount) {
+            this.senderId = senderId;
+            this.recipientId = recipientId;
+            this.amount = amount;
+        }
+    }
+
+    private static final class CachedBalance {
+
+        private long cents;
+        private final long loadedAt;
+        private int held;
+        private boolean stale;
+
+        private CachedBalance(long cents, long loadedAt) {
+            this.cents = cents;
+            this.loadedAt = loadedAt;
+        }
+
+        private CachedBalance add(Money delta) {
+            cents = Math.addExact(cents, delta.cents());
+            return this;
+        }
+
+        private void subtract(Money delta) {
+            cents = Math.subtractExact(cents, delta.cents());
+        }
+
+        private CachedBalance hold() {
+            held++;
+            return this;
+        }
+
+        private void release() {
+            held--;
+        }
+
+        private void invalidate() {
+            stale = true;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.rubnikovich.bankoperation.service;
+
+public enum TransferStatus {
+    COMPLETED,
+    USER_NOT_FOUND,
+    INSUFFICIENT_FUNDS,
+    SAME_ACCOUNT
+}
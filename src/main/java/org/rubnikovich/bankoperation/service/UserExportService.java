@@ -0,0 +1,186 @@
+package org.rubnikovich.bankoperation.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rubnikovich.bankoperation.dto.UserSummary;
+import org.rubnikovich.bankoperation.mapper.UserMapper;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.FETCHING_ALL_USERS;
+import static org.rubnikovich.bankoperation.config.ApiConstant.UNSUPPORTED_EXPORT_FORMAT;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserExportService {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final String CSV_HEADER = "login,firstName,lastName,birthDate,balance,initialDeposit";
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    public ResponseEntity<StreamingResponseBody> export(String format, String acceptEncoding) {
+        Format exportFormat = Format.of(format);
+        if (exportFormat == null) {
+            log.warn(UNSUPPORTED_EXPORT_FORMAT, format);
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        StreamingResponseBody body = outputStream -> readOnly.executeWithoutResult(status -> {
+            log.info(FETCHING_ALL_USERS);
+            try (Stream<UserSummary> users = userRepository.streamSummaries()) {
+                OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+                if (exportFormat == Format.CSV) {
+                    writeCsv(users.iterator(), target);
+                } else {
+                    writeJson(users.iterator(), target, exportFormat == Format.NDJSON);
+                }
+                if (target instanceof GZIPOutputStream gzipStream) {
+                    gzipStream.finish();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    // an explicit gzip coding wins over "*", and q=0 means "not acceptable" (RFC 9110, section 12.5.3)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    quality = parseQuality(parameter.substring(2));
+                }
+            }
+            if (name.equals(GZIP) || name.equals("x-gzip")) {
+                return quality > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    private static double parseQuality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void writeJson(Iterator<UserSummary> users, OutputStream target, boolean lines) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(target);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (lines) {
+            generator.setRootValueSeparator(null);
+        } else {
+            generator.writeStartArray();
+        }
+        while (users.hasNext()) {
+            generator.writeObject(userMapper.toUserDto(users.next()));
+            if (lines) {
+                generator.writeRaw('\n');
+            }
+        }
+        if (!lines) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+
+    private static void writeCsv(Iterator<UserSummary> users, OutputStream target) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (users.hasNext()) {
+            UserSummary user = users.next();
+            writer.write(csvField(user.login()));
+            writer.write(',');
+            writer.write(csvField(user.firstName()));
+            writer.write(',');
+            writer.write(csvField(user.lastName()));
+            writer.write(',');
+            writer.write(String.valueOf(user.birthDate()));
+            writer.write(',');
+            writer.write(user.balance() == null ? "" : user.balance().toPlainString());
+            writer.write(',');
+            writer.write(user.initialDeposit().toPlainString());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        NDJSON(UserExportService.NDJSON),
+        CSV(UserExportService.CSV);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        private static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equals(name.toUpperCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -5,26 +5,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.rubnikovich.bankoperation.entity.User;
 import org.rubnikovich.bankoperation.entity.UserEmail;
 import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
-import org.rubnikovich.bankoperation.service.EmailService;
-import org.rubnikovich.bankoperation.service.PhoneService;
-import org.rubnikovich.bankoperation.service.DetailsService;
+import org.rubnikovich.bankoperation.repository.UserRepository;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.Validator;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CustomValidator implements Validator {
-    private final DetailsService detailsService;
-    private final PhoneService phoneService;
-    private final EmailService emailService;
+    private final UserRepository userRepository;
 
     @Override
     public boolean supports(Class<?> aClass) {
@@ -34,29 +30,22 @@ public class CustomValidator implements Validator {
     @Override
     public void validate(Object target, Errors errors) {
         User user = (User) target;
-        try {
-            detailsService.loadUserByUsername(user.getLogin());
+        List<String> emails = user.getEmails() == null ? List.of()
+                : user.getEmails().stream().map(UserEmail::getEmail).toList();
+        List<String> phones = user.getPhones() == null ? List.of()
+                : user.getPhones().stream().map(UserPhoneNumber::getPhone).toList();
+        List<String> taken = userRepository.findTakenIdentifiers(user.getLogin(), emails, phones);
+        if (taken.contains("login")) {
             errors.rejectValue("login", "", "Login already exists");
             log.warn("Login already exists: {}", user.getLogin());
-        } catch (UsernameNotFoundException ignored) {
         }
-        if (user.getEmails() != null && !user.getEmails().isEmpty()) {
-            for (UserEmail userEmail : user.getEmails()) {
-                if (emailService.emailExists(userEmail.getEmail())) {
-                    errors.rejectValue("emails", "", "Email already exists");
-                    log.warn("Email already exists: {}", userEmail.getEmail());
-                    break;
-                }
-            }
+        if (taken.contains("email")) {
+            errors.rejectValue("emails", "", "Email already exists");
+            log.warn("Email already exists: {}", emails);
         }
-        if (user.getPhones() != null && !user.getPhones().isEmpty()) {
-            for (UserPhoneNumber userPhone : user.getPhones()) {
-                if (phoneService.phoneExists(userPhone.getPhone())) {
-                    errors.rejectValue("phones", "", "Phone number already exists");
-                    log.warn("Phone number already exists: {}", userPhone.getPhone());
-                    break;
-                }
-            }
+        if (taken.contains("phone")) {
+            errors.rejectValue("phones", "", "Phone number already exists");
+            log.warn("Phone number already exists: {}", phones);
         }
     }
 
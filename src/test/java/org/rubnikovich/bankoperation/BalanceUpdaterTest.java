@@ -0,0 +1,125 @@
+package org.rubnikovich.bankoperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.AccrualCheckpoint;
+import org.rubnikovich.bankoperation.repository.AccrualCheckpointRepository;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.BalanceUpdater;
+import org.rubnikovich.bankoperation.service.InterestAccrualEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate", "accrual.interval-ms=3600000",
+        "accrual.chunk-size=1", "accrual.shards=2", "accrual.parallelism=1"})
+@Import({BalanceUpdater.class, InterestAccrualEngine.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceUpdaterTest {
+
+    @Autowired
+    private BalanceUpdater balanceUpdater;
+
+    @SpyBean
+    private InterestAccrualEngine accrualEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccrualCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        checkpointRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testIncreaseBalance_ResumesUnfinishedRun() throws Exception {
+        List<Long> ids = saveUsers(3);
+        AccrualCheckpoint unfinished = new AccrualCheckpoint();
+        unfinished.setShard(0);
+        unfinished.setFirstId(ids.get(0) - 1);
+        unfinished.setLastId(ids.get(2));
+        unfinished.setProcessedId(ids.get(0));
+        unfinished.setRunStartedAt(LocalDateTime.now());
+        unfinished.setCompleted(false);
+        checkpointRepository.save(unfinished);
+
+        balanceUpdater.increaseBalance();
+        awaitCompleted();
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(balanceOf(ids.get(0))));
+        assertEquals(0, BigDecimal.valueOf(105).compareTo(balanceOf(ids.get(1))));
+        assertEquals(0, BigDecimal.valueOf(105).compareTo(balanceOf(ids.get(2))));
+        List<AccrualCheckpoint> checkpoints = checkpointRepository.findAll();
+        assertEquals(1, checkpoints.size());
+        assertEquals(ids.get(2), checkpoints.get(0).getProcessedId());
+    }
+
+    @Test
+    void testIncreaseBalance_SkipsOverlappingTick() throws Exception {
+        List<Long> ids = saveUsers(4);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return invocation.callRealMethod();
+        }).when(accrualEngine).accrueShard(any());
+
+        balanceUpdater.increaseBalance();
+        balanceUpdater.increaseBalance();
+        release.countDown();
+        awaitCompleted();
+
+        verify(accrualEngine, times(2)).accrueShard(any());
+        for (Long id : ids) {
+            assertEquals(0, BigDecimal.valueOf(105).compareTo(balanceOf(id)));
+        }
+        assertEquals(2, checkpointRepository.count());
+    }
+
+    private List<Long> saveUsers(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(userRepository.save(newUser("accrual" + i)).getId());
+        }
+        return ids;
+    }
+
+    private BigDecimal balanceOf(long id) {
+        return userRepository.findBalanceById(id).orElseThrow();
+    }
+
+    private void awaitCompleted() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!checkpointRepository.findAllByCompletedFalse().isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "accrual run did not complete");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.dto.TransactionDto;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.TransactionRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.BatchTransferEngine;
+import org.rubnikovich.bankoperation.service.Ledger;
+import org.rubnikovich.bankoperation.service.TransferEngine;
+import org.rubnikovich.bankoperation.service.TransferStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate", "transfer.batch.chunk-size=3"})
+@Import({TransferEngine.class, BatchTransferEngine.class, Ledger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchTransferEngineTest {
+
+    @Autowired
+    private BatchTransferEngine batchTransferEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private User sender;
+    private User first;
+    private User second;
+
+    @BeforeEach
+    void setUp() {
+        sender = userRepository.save(newUser("sender", BigDecimal.valueOf(100)));
+        first = userRepository.save(newUser("first", BigDecimal.valueOf(10)));
+        second = userRepository.save(newUser("second", BigDecimal.valueOf(10)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testTransferBatch_PerItemStatuses() {
+        List<TransactionDto> transfers = List.of(
+                newTransfer(first.getId(), 30),
+                newTransfer(second.getId(), 50),
+                newTransfer(Long.MAX_VALUE, 5),
+                newTransfer(sender.getId(), 5),
+                newTransfer(first.getId(), 40),
+                newTransfer(second.getId(), -1),
+                newTransfer(second.getId(), 1_000_000_000_000_000_000L),
+                newTransfer(first.getId(), 20));
+        List<TransferStatus> statuses = batchTransferEngine.transfer(sender.getId(), transfers);
+        assertEquals(List.of(TransferStatus.COMPLETED, TransferStatus.COMPLETED, TransferStatus.USER_NOT_FOUND,
+                TransferStatus.SAME_ACCOUNT, TransferStatus.INSUFFICIENT_FUNDS, TransferStatus.INSUFFICIENT_FUNDS,
+                TransferStatus.INSUFFICIENT_FUNDS, TransferStatus.COMPLETED), statuses);
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(sender)));
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(balanceOf(first)));
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(balanceOf(second)));
+        assertEquals(3, transactionRepository.count());
+    }
+
+    private BigDecimal balanceOf(User user) {
+        return userRepository.findBalanceById(user.getId()).orElseThrow();
+    }
+
+    private TransactionDto newTransfer(long recipientId, long amount) {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setRecipientId(recipientId);
+        transactionDto.setAmount(BigDecimal.valueOf(amount));
+        return transactionDto;
+    }
+}
@@ -0,0 +1,82 @@
+package org.rubnikovich.bankoperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.security.BoundedPasswordEncoder;
+import org.rubnikovich.bankoperation.security.PasswordHashingBusyException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.stop();
+    }
+
+    @Test
+    void testUpgradeEncoding_OnlyBelowConfiguredCost() {
+        passwordEncoder = newEncoder(4, 5);
+        String encoded = passwordEncoder.encode("password");
+        assertEquals(5, passwordEncoder.getStrength());
+        assertTrue(passwordEncoder.matches("password", encoded));
+        assertFalse(passwordEncoder.upgradeEncoding(encoded));
+        assertTrue(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+        assertEquals(1, meterRegistry.get("bank.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("bank.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testEncode_RejectsWhenSaturated() throws Exception {
+        passwordEncoder = newEncoder(1, 10);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return passwordEncoder.encode("password");
+            }));
+        }
+        start.countDown();
+        int rejected = 0;
+        for (Future<String> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof PasswordHashingBusyException);
+                rejected++;
+            }
+        }
+        callers.shutdown();
+        assertTrue(rejected > 0);
+        assertEquals(rejected, meterRegistry.get("bank.password.rejected").counter().count());
+    }
+
+    private BoundedPasswordEncoder newEncoder(int queueCapacity, int cost) {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(meterRegistry);
+        ReflectionTestUtils.setField(encoder, "threads", 1);
+        ReflectionTestUtils.setField(encoder, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(encoder, "targetMillis", 1L);
+        ReflectionTestUtils.setField(encoder, "strength", cost);
+        encoder.start();
+        return encoder;
+    }
+}
@@ -0,0 +1,59 @@
+package org.rubnikovich.bankoperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.config.ConcurrencyLimitFilter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void testDoFilter_RejectsWhenAllPermitsAreHeld() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(meterRegistry);
+        ReflectionTestUtils.setField(filter, "maxRequests", 1);
+        ReflectionTestUtils.setField(filter, "queueTimeoutMillis", 50L);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 1L);
+        filter.createPermits();
+
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<MockHttpServletResponse> held = caller.submit(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest(), response, (request, ignored) -> {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return response;
+        });
+        entered.await();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.get("bank.requests.rejected").counter().count());
+
+        release.countDown();
+        assertEquals(200, held.get().getStatus());
+        caller.shutdown();
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), accepted, new MockFilterChain());
+        assertEquals(200, accepted.getStatus());
+    }
+}
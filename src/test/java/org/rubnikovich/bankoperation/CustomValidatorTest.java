@@ -0,0 +1,97 @@
+package org.rubnikovich.bankoperation;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.entity.UserEmail;
+import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
+import org.rubnikovich.bankoperation.repository.EmailRepository;
+import org.rubnikovich.bankoperation.repository.PhoneRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.validator.CustomValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import(CustomValidator.class)
+class CustomValidatorTest {
+
+    @Autowired
+    private CustomValidator customValidator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailRepository emailRepository;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(newUserWithContacts("taken", List.of(), List.of()));
+        UserEmail email = new UserEmail();
+        email.setUser(user);
+        email.setEmail("taken@mail.com");
+        emailRepository.save(email);
+        UserPhoneNumber phone = new UserPhoneNumber();
+        phone.setUser(user);
+        phone.setPhone("111");
+        phoneRepository.save(phone);
+        userRepository.flush();
+    }
+
+    @Test
+    void testValidate_AllConflictsInOneStatement() {
+        User user = newUserWithContacts("taken", List.of("free@mail.com", "taken@mail.com"), List.of("111"));
+        Errors errors = new BeanPropertyBindingResult(user, "user");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        customValidator.validate(user, errors);
+        assertTrue(errors.hasFieldErrors("login"));
+        assertTrue(errors.hasFieldErrors("emails"));
+        assertTrue(errors.hasFieldErrors("phones"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testValidate_NoConflicts() {
+        User user = newUserWithContacts("free", List.of(), List.of("222"));
+        Errors errors = new BeanPropertyBindingResult(user, "user");
+        customValidator.validate(user, errors);
+        assertFalse(errors.hasErrors());
+    }
+
+    private User newUserWithContacts(String login, List<String> emails, List<String> phones) {
+        User user = TestUsers.newUser(login, BigDecimal.TEN);
+        user.setEmails(emails.stream().map(value -> {
+            UserEmail email = new UserEmail();
+            email.setEmail(value);
+            return email;
+        }).toList());
+        user.setPhones(phones.stream().map(value -> {
+            UserPhoneNumber phone = new UserPhoneNumber();
+            phone.setPhone(value);
+            return phone;
+        }).toList());
+        return user;
+    }
+}
@@ -0,0 +1,106 @@
+package org.rubnikovich.bankoperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.rubnikovich.bankoperation.dto.UserPrincipal;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.rubnikovich.bankoperation.service.DetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DetailsService detailsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        detailsService = new DetailsService(userRepository, meterRegistry);
+        ReflectionTestUtils.setField(detailsService, "maxSize", 100L);
+        ReflectionTestUtils.setField(detailsService, "ttlMillis", 60000L);
+        detailsService.buildCache();
+    }
+
+    @Test
+    void testLoadPrincipal_CachedPerToken() {
+        when(userRepository.findPrincipalByLogin("user")).thenReturn(Optional.of(new UserPrincipal(1L, "user")));
+        assertEquals(1L, detailsService.loadPrincipal("user", "first").getId());
+        detailsService.loadPrincipal("user", "first");
+        detailsService.loadPrincipal("user", "second");
+        verify(userRepository, times(2)).findPrincipalByLogin("user");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testEvictPrincipals_ReloadsUser() {
+        when(userRepository.findPrincipalByLogin("user"))
+                .thenReturn(Optional.of(new UserPrincipal(1L, "user")), Optional.empty());
+        detailsService.loadPrincipal("user", "first");
+        detailsService.evictPrincipals("user");
+        assertThrows(UsernameNotFoundException.class, () -> detailsService.loadPrincipal("user", "first"));
+    }
+
+    @Test
+    void testLoadPrincipal_ConcurrentLookupsShareOneQuery() throws Exception {
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findPrincipalByLogin("user")).thenAnswer(invocation -> {
+            queried.countDown();
+            release.await();
+            return Optional.of(new UserPrincipal(1L, "user"));
+        });
+        CompletableFuture<UsersDetails> first =
+                CompletableFuture.supplyAsync(() -> detailsService.loadPrincipal("user", "first"));
+        assertTrue(queried.await(5, TimeUnit.SECONDS));
+        CompletableFuture<UsersDetails> second =
+                CompletableFuture.supplyAsync(() -> detailsService.loadPrincipal("user", "first"));
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).getId());
+        assertEquals(1L, second.get(5, TimeUnit.SECONDS).getId());
+        verify(userRepository, times(1)).findPrincipalByLogin("user");
+    }
+
+    @Test
+    void testEvictPrincipals_DuringLoadIsNotOverwritten() throws Exception {
+        CountDownLatch queried = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findPrincipalByLogin("user")).thenAnswer(invocation -> {
+            queried.countDown();
+            release.await();
+            return Optional.of(new UserPrincipal(1L, "user"));
+        }).thenReturn(Optional.empty());
+        CompletableFuture<UsersDetails> stale =
+                CompletableFuture.supplyAsync(() -> detailsService.loadPrincipal("user", "first"));
+        assertTrue(queried.await(5, TimeUnit.SECONDS));
+        detailsService.evictPrincipals("user");
+        release.countDown();
+        stale.get(5, TimeUnit.SECONDS);
+        assertThrows(UsernameNotFoundException.class, () -> detailsService.loadPrincipal("user", "first"));
+    }
+}
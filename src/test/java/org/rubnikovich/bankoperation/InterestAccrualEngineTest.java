@@ -0,0 +1,90 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.AccrualCheckpoint;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.AccrualCheckpointRepository;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.InterestAccrualEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate", "accrual.chunk-size=2"})
+@Import(InterestAccrualEngine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InterestAccrualEngineTest {
+
+    @Autowired
+    private InterestAccrualEngine accrualEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccrualCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        checkpointRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testAccrueShard_CapsBalancesAcrossChunks() {
+        List<Long> ids = new ArrayList<>();
+        for (String balance : List.of("100", "205", "207", "100", "150")) {
+            User user = newUser("accrual" + ids.size(), BigDecimal.valueOf(100));
+            user.setBalance(new BigDecimal(balance));
+            ids.add(userRepository.save(user).getId());
+        }
+        long firstId = ids.get(0) - 1;
+        long lastId = ids.get(ids.size() - 1);
+        AccrualCheckpoint checkpoint = checkpointRepository.save(newCheckpoint(firstId, lastId));
+
+        assertEquals(4, accrualEngine.accrueShard(checkpoint));
+
+        List<String> expected = List.of("105", "207", "207", "105", "155");
+        for (int i = 0; i < ids.size(); i++) {
+            BigDecimal balance = userRepository.findBalanceById(ids.get(i)).orElseThrow();
+            assertEquals(0, new BigDecimal(expected.get(i)).compareTo(balance), "account " + i);
+        }
+        assertEquals(4, ledgerEntryRepository.count());
+        AccrualCheckpoint stored = checkpointRepository.findById(0).orElseThrow();
+        assertEquals(lastId, stored.getProcessedId());
+        assertTrue(stored.isCompleted());
+
+        checkpointRepository.deleteAllInBatch();
+        accrualEngine.accrueShard(checkpointRepository.save(newCheckpoint(firstId, lastId)));
+        assertEquals(0, new BigDecimal("207").compareTo(userRepository.findBalanceById(ids.get(1)).orElseThrow()));
+        assertEquals(0, new BigDecimal("207").compareTo(userRepository.findBalanceById(ids.get(2)).orElseThrow()));
+    }
+
+    private static AccrualCheckpoint newCheckpoint(long firstId, long lastId) {
+        AccrualCheckpoint checkpoint = new AccrualCheckpoint();
+        checkpoint.setShard(0);
+        checkpoint.setFirstId(firstId);
+        checkpoint.setLastId(lastId);
+        checkpoint.setProcessedId(firstId);
+        checkpoint.setRunStartedAt(LocalDateTime.now());
+        checkpoint.setCompleted(false);
+        return checkpoint;
+    }
+}
@@ -0,0 +1,43 @@
+package org.rubnikovich.bankoperation;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.security.JwtUtil;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    @Test
+    void testVerify_AcceptsTokensOfRotatedKey() {
+        String token = new JwtUtil("old-secret", "k1", List.of()).generateToken("user");
+        JwtUtil rotated = new JwtUtil("new-secret", "k2", List.of("k1:old-secret"));
+        assertEquals("user", rotated.validateTokenAndGetClaim(token));
+        assertEquals("user", rotated.validateTokenAndGetClaim(rotated.generateToken("user")));
+    }
+
+    @Test
+    void testVerify_RejectsRetiredKey() {
+        String token = new JwtUtil("old-secret", "k1", List.of()).generateToken("user");
+        JwtUtil rotated = new JwtUtil("new-secret", "k2", List.of());
+        assertThrows(JWTVerificationException.class, () -> rotated.verify(token));
+    }
+
+    @Test
+    void testConstructor_RejectsMalformedPreviousKeys() {
+        IllegalStateException missingSeparator = assertThrows(IllegalStateException.class,
+                () -> new JwtUtil("secret", "k2", List.of("k1:old", "old-secret")));
+        assertTrue(missingSeparator.getMessage().contains("token.signing.previous-keys"));
+        assertTrue(missingSeparator.getMessage().contains("#2"));
+        assertFalse(missingSeparator.getMessage().contains("old-secret"));
+        IllegalStateException blankSecret = assertThrows(IllegalStateException.class,
+                () -> new JwtUtil("secret", "k2", List.of("k1: ")));
+        assertTrue(blankSecret.getMessage().contains("'k1:'"));
+        assertThrows(IllegalStateException.class, () -> new JwtUtil("secret", "k2", List.of(":old-secret")));
+    }
+}
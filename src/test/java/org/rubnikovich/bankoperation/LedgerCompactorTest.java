@@ -0,0 +1,85 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.Ledger;
+import org.rubnikovich.bankoperation.service.LedgerCompactor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+// the scheduled run would race the assertions on the snapshot before compaction
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate", "ledger.compaction.interval-ms=3600000"})
+@Import({Ledger.class, LedgerCompactor.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerCompactorTest {
+
+    @Autowired
+    private Ledger ledger;
+
+    @Autowired
+    private LedgerCompactor ledgerCompactor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    private User sender;
+    private User recipient;
+
+    @BeforeEach
+    void setUp() {
+        sender = userRepository.save(newUser("sender"));
+        recipient = userRepository.save(newUser("recipient"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testCompact_FoldsEntriesIntoSnapshot() {
+        transfer(new Money(3000));
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(userRepository.findBalanceById(sender.getId()).orElseThrow()));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(snapshotOf(sender)));
+
+        ledgerCompactor.compact();
+        transfer(new Money(2000));
+        ledgerCompactor.compact();
+        ledgerCompactor.compact();
+
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(snapshotOf(sender)));
+        assertEquals(0, BigDecimal.valueOf(150).compareTo(snapshotOf(recipient)));
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(userRepository.findBalanceById(sender.getId()).orElseThrow()));
+    }
+
+    private void transfer(Money amount) {
+        List<Object[]> entries = new ArrayList<>();
+        Ledger.addTransfer(entries, sender.getId(), recipient.getId(), amount, Timestamp.valueOf(LocalDateTime.now()));
+        ledger.append(entries);
+    }
+
+    private BigDecimal snapshotOf(User user) {
+        return userRepository.findById(user.getId()).orElseThrow().getBalance();
+    }
+}
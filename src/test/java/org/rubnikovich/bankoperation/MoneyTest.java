@@ -0,0 +1,49 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.entity.MoneyConverter;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @Test
+    void testOf_RoundsHalfUpToCents() {
+        assertEquals(new Money(1001), Money.of(new BigDecimal("10.005")));
+        assertEquals(new Money(1000), Money.of(new BigDecimal("10.0049")));
+        assertEquals(new Money(-1001), Money.of(new BigDecimal("-10.005")));
+        assertEquals(new Money(3000), Money.of(BigDecimal.valueOf(30)));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+18")));
+    }
+
+    @Test
+    void testOfOrNull_RejectsMissingAndOutOfRange() {
+        assertEquals(new Money(3000), Money.ofOrNull(BigDecimal.valueOf(30)));
+        assertNull(Money.ofOrNull(null));
+        assertNull(Money.ofOrNull(new BigDecimal("1E+18")));
+    }
+
+    @Test
+    void testArithmetic_ExactOrThrows() {
+        Money balance = Money.of(new BigDecimal("0.30"));
+        assertEquals(Money.ZERO, balance.minus(new Money(10)).minus(new Money(20)));
+        assertTrue(balance.isLessThan(balance.plus(new Money(1))));
+        assertEquals(new BigDecimal("0.30"), balance.toBigDecimal());
+        assertThrows(ArithmeticException.class, () -> new Money(Long.MAX_VALUE).plus(new Money(1)));
+        assertThrows(ArithmeticException.class, () -> new Money(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void testConverter_RoundTrip() {
+        MoneyConverter converter = new MoneyConverter();
+        Money amount = new Money(-12345);
+        assertEquals(new BigDecimal("-123.45"), converter.convertToDatabaseColumn(amount));
+        assertEquals(amount, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(amount)));
+    }
+}
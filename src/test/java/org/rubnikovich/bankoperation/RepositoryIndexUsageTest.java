@@ -0,0 +1,226 @@
+package org.rubnikovich.bankoperation;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.dto.TransactionDto;
+import org.rubnikovich.bankoperation.dto.UserSearchFilter;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.AccrualCheckpointRepository;
+import org.rubnikovich.bankoperation.repository.EmailRepository;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.PhoneRepository;
+import org.rubnikovich.bankoperation.repository.TransactionRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.Ledger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.context.transaction.AfterTransaction;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+/**
+ * Runs every repository query once against a small seeded data set, captures the SQL hibernate issued and checks
+ * with EXPLAIN that H2 plans it through the index it was written for. The trigram indexes exist only on postgresql,
+ * so their queries are not covered here.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class RepositoryIndexUsageTest {
+
+    private static final int USERS = 50;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EmailRepository emailRepository;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Autowired
+    private AccrualCheckpointRepository accrualCheckpointRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long firstId;
+    private long lastId;
+
+    @BeforeEach
+    void setUp() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = newUser("index" + i);
+            user.setBirthDate(LocalDate.of(1950, 1, 1).plusDays(i * 365L));
+            ids.add(userRepository.save(user).getId());
+        }
+        firstId = ids.get(0);
+        lastId = ids.get(USERS - 1);
+        List<Object[]> contacts = new ArrayList<>();
+        List<Object[]> transfers = new ArrayList<>();
+        List<Object[]> entries = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            long senderId = ids.get(i);
+            long recipientId = ids.get((i + 1) % USERS);
+            contacts.add(new Object[]{senderId, "index" + i + "@mail.com", "+37529" + (1000000 + i)});
+            for (int day = 0; day < 4; day++) {
+                Timestamp date = Timestamp.valueOf(NOW.minusDays(day).minusMinutes(i));
+                transfers.add(new Object[]{senderId, recipientId, BigDecimal.ONE, date});
+                Ledger.addTransfer(entries, senderId, recipientId, new Money(100), date);
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO emails (user_id, email) VALUES (?, ?)",
+                contacts.stream().map(row -> new Object[]{row[0], row[1]}).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO phone_numbers (user_id, phone_number) VALUES (?, ?)",
+                contacts.stream().map(row -> new Object[]{row[0], row[2]}).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO transaction (sender_id, recipient_id, amount, date) "
+                + "VALUES (?, ?, ?, ?)", transfers);
+        jdbcTemplate.batchUpdate("INSERT INTO ledger_entry (account_id, entry_type, amount, created_at) "
+                + "VALUES (?, ?, ?, ?)", entries);
+        // H2 costs indexes from table statistics, on empty tables every candidate index ties;
+        // ANALYZE commits, so the rows are removed after the test transaction instead of rolled back
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterTransaction
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        emailRepository.deleteAllInBatch();
+        phoneRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testUserQueries_UseIndexes() {
+        assertUses(() -> userRepository.findByLogin("index1"), "UK_USERS_LOGIN");
+        assertUses(() -> userRepository.findPrincipalByLogin("index1"), "UK_USERS_LOGIN");
+        assertUses(() -> userRepository.findTakenIdentifiers("index1", List.of("index1@mail.com"),
+                List.of("+372291000001")), "UK_USERS_LOGIN", "UK_EMAILS_EMAIL", "UK_PHONE_NUMBERS_PHONE_NUMBER");
+        assertUses(() -> userRepository.searchSummaries(
+                new UserSearchFilter(LocalDate.of(1990, 1, 1), null, null, null), PageRequest.of(1, 10)),
+                "IDX_USERS_BIRTH_DAY");
+        assertUses(() -> userRepository.searchSummaries(
+                new UserSearchFilter(null, "+372291000001", null, "index1@mail.com"), PageRequest.of(1, 10)),
+                "UK_EMAILS_EMAIL", "UK_PHONE_NUMBERS_PHONE_NUMBER", "PRIMARY_KEY");
+        assertUses(() -> userRepository.findBalanceById(firstId), "PRIMARY_KEY", "IDX_LEDGER_ENTRY_ACCOUNT");
+        assertDirectLookup(() -> userRepository.findMinId());
+        assertDirectLookup(() -> userRepository.findMaxId());
+        assertUses(() -> userRepository.findChunkUpperBound(firstId, lastId, 10), "PRIMARY_KEY");
+        assertUses(() -> userRepository.lockRange(firstId, firstId + 10), "PRIMARY_KEY");
+        assertUses(() -> userRepository.lockAccounts(List.of(firstId, lastId)), "PRIMARY_KEY");
+    }
+
+    @Test
+    void testLedgerQueries_UseIndexes() {
+        assertDirectLookup(() -> ledgerEntryRepository.findMaxId());
+        assertUses(() -> ledgerEntryRepository.findAccountsWithEntries(0L, 10L), "PRIMARY_KEY");
+        assertUses(() -> ledgerEntryRepository.accrueInterest(firstId, firstId + 10), "PRIMARY_KEY",
+                "IDX_LEDGER_ENTRY_ACCOUNT");
+        assertUses(() -> ledgerEntryRepository.compact(List.of(firstId, lastId)), "PRIMARY_KEY",
+                "IDX_LEDGER_ENTRY_ACCOUNT");
+    }
+
+    @Test
+    void testTransactionQueries_UseIndexes() {
+        assertUses(() -> transactionRepository.findSentPage(firstId, NOW.minusDays(1), NOW, 0L, Limit.of(10)),
+                "IDX_TRANSACTION_SENDER_HISTORY");
+        assertUses(() -> transactionRepository.findReceivedPage(lastId, NOW.minusDays(1), NOW, 0L, Limit.of(10)),
+                "IDX_TRANSACTION_RECIPIENT_HISTORY");
+        assertUses(() -> transactionRepository.findHistoryPage(NOW.minusDays(1), NOW, 0L, Limit.of(10)),
+                "IDX_TRANSACTION_DATE");
+        assertUses(() -> {
+            try (Stream<TransactionDto> history = transactionRepository.streamSentHistory(firstId,
+                    NOW.minusDays(1), NOW)) {
+                history.findFirst();
+            }
+        }, "IDX_TRANSACTION_SENDER_HISTORY");
+        assertUses(() -> {
+            try (Stream<TransactionDto> history = transactionRepository.streamReceivedHistory(lastId,
+                    NOW.minusDays(1), NOW)) {
+                history.findFirst();
+            }
+        }, "IDX_TRANSACTION_RECIPIENT_HISTORY");
+    }
+
+    @Test
+    void testContactQueries_UseIndexes() {
+        assertUses(() -> emailRepository.existsByEmail("index1@mail.com"), "UK_EMAILS_EMAIL");
+        // H2 backs every foreign key with an index of its own, which it prefers over idx_emails_user_id
+        assertUses(() -> emailRepository.findAllByUserId(firstId), "FK_EMAILS_USER");
+        assertUses(() -> emailRepository.findByEmail("index1@mail.com"), "UK_EMAILS_EMAIL");
+        assertUses(() -> phoneRepository.existsByPhone("+372291000001"), "UK_PHONE_NUMBERS_PHONE_NUMBER");
+        assertUses(() -> phoneRepository.findAllByUserId(firstId), "FK_PHONE_NUMBERS_USER");
+        assertUses(() -> phoneRepository.findByPhone("+372291000001"), "UK_PHONE_NUMBERS_PHONE_NUMBER");
+        assertUses(() -> accrualCheckpointRepository.advance(1, 10L), "PRIMARY_KEY");
+        assertUses(() -> accrualCheckpointRepository.markCompleted(1), "PRIMARY_KEY");
+    }
+
+    private void assertUses(Runnable query, String... indexes) {
+        for (String plan : explain(query)) {
+            assertFalse(plan.contains(".tableScan"), () -> "table scan in\n" + plan);
+            for (String index : indexes) {
+                assertTrue(plan.contains("/* PUBLIC." + index), () -> index + " not used in\n" + plan);
+            }
+        }
+    }
+
+    // min and max of a key read one end of any index on the table, so the index H2 names is arbitrary
+    private void assertDirectLookup(Runnable query) {
+        for (String plan : explain(query)) {
+            assertTrue(plan.contains("/* direct lookup */"), () -> "no direct lookup in\n" + plan);
+        }
+    }
+
+    private List<String> explain(Runnable query) {
+        STATEMENTS.clear();
+        query.run();
+        assertFalse(STATEMENTS.isEmpty());
+        return STATEMENTS.stream()
+                .map(sql -> jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                        (ResultSetExtractor<String>) resultSet -> resultSet.next() ? resultSet.getString(1) : ""))
+                .toList();
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
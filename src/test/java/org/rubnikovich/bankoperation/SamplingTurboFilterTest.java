@@ -0,0 +1,34 @@
+package org.rubnikovich.bankoperation;
+
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.config.SamplingTurboFilter;
+import org.slf4j.MarkerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplingTurboFilterTest {
+
+    @Test
+    void testDecide_KeepsRoughlyOneInRateSampledEvents() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setRate(10);
+        int kept = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.decide(SamplingTurboFilter.SAMPLED, null, null, null, null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 9000 && kept < 11000, "kept " + kept);
+    }
+
+    @Test
+    void testDecide_LeavesOtherEventsAlone() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setRate(1000000);
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, null, null, null, null, null));
+        assertEquals(FilterReply.NEUTRAL,
+                filter.decide(MarkerFactory.getMarker("OTHER"), null, null, null, null, null));
+    }
+}
@@ -0,0 +1,28 @@
+package org.rubnikovich.bankoperation;
+
+import org.rubnikovich.bankoperation.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    static User newUser(String login) {
+        return newUser(login, BigDecimal.valueOf(100));
+    }
+
+    static User newUser(String login, BigDecimal balance) {
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword("password");
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        user.setInitialDeposit(balance);
+        user.setBalance(balance);
+        return user;
+    }
+}
@@ -1,57 +1,72 @@
 package org.rubnikovich.bankoperation;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.rubnikovich.bankoperation.dto.TransactionDto;
-import org.rubnikovich.bankoperation.entity.Transaction;
-import org.rubnikovich.bankoperation.entity.User;
-import org.rubnikovich.bankoperation.repository.TransactionRepository;
-import org.rubnikovich.bankoperation.repository.UserRepository;
-import org.rubnikovich.bankoperation.security.JwtUtil;
+import org.rubnikovich.bankoperation.entity.LedgerEntryType;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.rubnikovich.bankoperation.service.BatchTransferEngine;
+import org.rubnikovich.bankoperation.service.Ledger;
 import org.rubnikovich.bankoperation.service.TransactionService;
+import org.rubnikovich.bankoperation.service.TransferEngine;
+import org.rubnikovich.bankoperation.service.TransferSequencer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionControllerTest {
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private Ledger ledger;
 
     @Mock
-    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
 
     @Mock
-    private JwtUtil jwtUtil;
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<TransferSequencer> transferSequencer;
+
+    @Mock
+    private BatchTransferEngine batchTransferEngine;
+
+    private SimpleMeterRegistry meterRegistry;
 
-    @InjectMocks
     private TransactionService transactionService;
 
-    private User sender;
-    private User recipient;
+    private UsersDetails principal;
     private TransactionDto transactionDto;
 
     @BeforeEach
     void setUp() {
-        sender = new User();
-        sender.setId(1L);
-        sender.setLogin("sender");
-        sender.setBalance(BigDecimal.valueOf(1000));
-        recipient = new User();
-        recipient.setId(2L);
-        recipient.setLogin("recipient");
-        recipient.setBalance(BigDecimal.valueOf(500));
+        TransferEngine transferEngine = new TransferEngine(ledger, jdbcTemplate, transactionTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        transactionService = new TransactionService(transferEngine, transferSequencer, batchTransferEngine,
+                meterRegistry);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        principal = new UsersDetails(1L, "sender");
         transactionDto = new TransactionDto();
         transactionDto.setAmount(BigDecimal.valueOf(100));
         transactionDto.setSender(1L);
@@ -60,75 +75,68 @@ class TransactionControllerTest {
 
     @Test
     void testMakeTransaction_Success() {
-        String token = "test_token";
-        when(jwtUtil.getLogin(token)).thenReturn("sender");
-        when(userRepository.findByLogin("sender")).thenReturn(Optional.of(sender));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(sender));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(recipient));
-        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, token);
+        when(ledger.lockBalances(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, new Money(100000), 2L, new Money(50000)));
+        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, principal);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Transaction made successfully ", response.getBody());
-        assertEquals(BigDecimal.valueOf(900), sender.getBalance());
-        assertEquals(BigDecimal.valueOf(600), recipient.getBalance());
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
-        verify(userRepository, times(2)).save(any(User.class));
+        ArgumentCaptor<List<Object[]>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledger, times(1)).append(entries.capture());
+        assertEquals(2, entries.getValue().size());
+        assertEquals(LedgerEntryType.DEBIT.name(), entries.getValue().get(0)[1]);
+        assertEquals(new BigDecimal("-100.00"), entries.getValue().get(0)[2]);
+        assertEquals(LedgerEntryType.CREDIT.name(), entries.getValue().get(1)[1]);
+        assertEquals(new BigDecimal("100.00"), entries.getValue().get(1)[2]);
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+        assertEquals(1, meterRegistry.get("bank.transfers").tag("status", "COMPLETED").timer().count());
+    }
+
+    @Test
+    void testMakeTransaction_InsufficientFunds() {
+        when(ledger.lockBalances(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, new Money(5000), 2L, new Money(50000)));
+        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, principal);
+        assertEquals(400, response.getStatusCodeValue());
+        assertTrue(response.getBody().contains("insufficient funds"));
+        verify(ledger, never()).append(anyList());
+        assertEquals(1, meterRegistry.get("bank.transfers").tag("status", "INSUFFICIENT_FUNDS").timer().count());
     }
 
     @Test
     void testMakeTransaction_UserNotFound() {
-        String token = "test_token";
-        when(jwtUtil.getLogin(token)).thenReturn("sender");
-        when(userRepository.findByLogin("sender")).thenReturn(Optional.empty());
-        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, token);
+        when(ledger.lockBalances(List.of(1L, 2L))).thenReturn(Map.of(2L, new Money(50000)));
+        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, principal);
         assertEquals(400, response.getStatusCodeValue());
         assertTrue(response.getBody().contains("User not found"));
-        verify(transactionRepository, times(0)).save(any(Transaction.class));
-        verify(userRepository, times(0)).save(any(User.class));
+        verify(ledger, never()).append(anyList());
+        assertEquals(1, meterRegistry.get("bank.transfers").tag("status", "USER_NOT_FOUND").timer().count());
     }
 
     @Test
     void testMakeTransaction_RecipientNotFound() {
-        String token = "test_token";
-        when(jwtUtil.getLogin(token)).thenReturn("sender");
-        when(userRepository.findByLogin("sender")).thenReturn(Optional.of(sender));
-        when(userRepository.findById(anyLong())).thenAnswer(invocation -> {
-            Long id = invocation.getArgument(0);
-            if (id.equals(1L)) {
-                return Optional.of(sender);
-            } else {
-                return Optional.empty();
-            }
-        });
-        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, token);
+        when(ledger.lockBalances(List.of(1L, 2L))).thenReturn(Map.of(1L, new Money(100000)));
+        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, principal);
         assertEquals(400, response.getStatusCodeValue());
         assertTrue(response.getBody().contains("User not found"));
-        verify(transactionRepository, times(0)).save(any(Transaction.class));
-        verify(userRepository, times(0)).save(any(User.class));
+        verify(ledger, never()).append(anyList());
     }
 
     @Test
     void testMakeTransaction_NegativeAmount() {
-        String token = "test_token";
-        when(jwtUtil.getLogin(token)).thenReturn("sender");
-        User sender = new User();
-        sender.setId(1L);
-        sender.setLogin("sender");
-        sender.setBalance(BigDecimal.valueOf(100));
-        User recipient = new User();
-        recipient.setId(2L);
-        recipient.setLogin("recipient");
-        recipient.setBalance(BigDecimal.valueOf(50));
-        TransactionDto transactionDto = new TransactionDto();
-        transactionDto.setSender(sender.getId());
-        transactionDto.setRecipientId(recipient.getId());
         transactionDto.setAmount(BigDecimal.valueOf(-10));
-        when(userRepository.findByLogin("sender")).thenReturn(Optional.of(sender));
-        when(userRepository.findById(recipient.getId())).thenReturn(Optional.of(recipient));
-        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, token);
+        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, principal);
         assertEquals(400, response.getStatusCodeValue());
         String responseBody = response.getBody();
         assertTrue(responseBody.contains("Failed to make transaction, insufficient funds for the transaction"));
-        verify(transactionRepository, times(0)).save(any(Transaction.class));
-        verify(userRepository, times(0)).save(any(User.class));
+        verify(ledger, never()).append(anyList());
+    }
+
+    @Test
+    void testMakeTransaction_AmountOutOfRange() {
+        transactionDto.setAmount(new BigDecimal("1E+18"));
+        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, principal);
+        assertEquals(400, response.getStatusCodeValue());
+        assertTrue(response.getBody().contains("Failed to make transaction, insufficient funds for the transaction"));
+        verify(ledger, never()).append(anyList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.dto.TransactionCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionCursorTest {
+
+    @Test
+    void testDecode_RoundTrip() {
+        TransactionCursor cursor = new TransactionCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15), 42);
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testDecode_MalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("garbage|1")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("2024-03-01T12:30|x")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encode("no-separator")));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("not base64!"));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,126 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.entity.Transaction;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.TransactionRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.Ledger;
+import org.rubnikovich.bankoperation.service.LedgerCompactor;
+import org.rubnikovich.bankoperation.service.TransferEngine;
+import org.rubnikovich.bankoperation.service.TransferStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@Import({TransferEngine.class, Ledger.class, LedgerCompactor.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferEngineStressTest {
+
+    private static final int ACCOUNTS = 8;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 100;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerCompactor ledgerCompactor;
+
+    private List<Long> accountIds;
+
+    @BeforeEach
+    void setUp() {
+        accountIds = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(userRepository.save(newUser("stress" + i, INITIAL_BALANCE)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentTransfers_ConserveMoney() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int completed = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    long senderId = accountIds.get(random.nextInt(ACCOUNTS));
+                    long recipientId = accountIds.get(random.nextInt(ACCOUNTS));
+                    Money amount = new Money(random.nextInt(1, 30000));
+                    if (transferEngine.transfer(senderId, recipientId, amount) == TransferStatus.COMPLETED) {
+                        completed++;
+                    }
+                }
+                return completed;
+            }));
+        }
+        start.countDown();
+        int completed = 0;
+        for (Future<Integer> result : results) {
+            completed += result.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        ledgerCompactor.compact();
+        List<User> users = userRepository.findAll();
+        BigDecimal total = users.stream().map(User::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+        assertTrue(users.stream().allMatch(user -> user.getBalance().signum() >= 0));
+
+        List<Transaction> transactions = transactionRepository.findAll();
+        assertEquals(completed, transactions.size());
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        accountIds.forEach(id -> expected.put(id, INITIAL_BALANCE));
+        for (Transaction transaction : transactions) {
+            expected.merge(transaction.getSender().getId(), transaction.getAmount().negate(), BigDecimal::add);
+            expected.merge(transaction.getRecipient().getId(), transaction.getAmount(), BigDecimal::add);
+        }
+        for (User user : users) {
+            assertEquals(0, expected.get(user.getId()).compareTo(user.getBalance()));
+        }
+    }
+}
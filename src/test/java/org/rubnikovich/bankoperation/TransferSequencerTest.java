@@ -0,0 +1,129 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.Money;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.TransactionRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.Ledger;
+import org.rubnikovich.bankoperation.service.TransferEngine;
+import org.rubnikovich.bankoperation.service.TransferSequencer;
+import org.rubnikovich.bankoperation.service.TransferStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate", "transfer.mode=sequenced",
+        "transfer.sequencer.lanes=1", "transfer.sequencer.balance-ttl-ms=0",
+        "transfer.sequencer.max-cached-accounts=1"})
+@Import({TransferEngine.class, TransferSequencer.class, Ledger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferSequencerTest {
+
+    @Autowired
+    private TransferSequencer transferSequencer;
+
+    @SpyBean
+    private TransferEngine transferEngine;
+
+    @SpyBean
+    private Ledger ledger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testSubmit_HeldBalancesAreNotReloaded() throws Exception {
+        long senderId = userRepository.save(newUser("sender", BigDecimal.valueOf(100))).getId();
+        long recipientId = userRepository.save(newUser("recipient", BigDecimal.ZERO)).getId();
+        List<CompletableFuture<TransferStatus>> statuses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            statuses.add(transferSequencer.submit(senderId, recipientId, new Money(6000)));
+        }
+        int completed = 0;
+        for (CompletableFuture<TransferStatus> status : statuses) {
+            if (status.get(10, TimeUnit.SECONDS) == TransferStatus.COMPLETED) {
+                completed++;
+            }
+        }
+        assertEquals(1, completed);
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(userRepository.findBalanceById(senderId).orElseThrow()));
+        verify(transferEngine, never()).transfer(anyLong(), anyLong(), any(Money.class));
+    }
+
+    @Test
+    void testSubmit_FailedFlushKeepsHeldBalances() throws Exception {
+        long senderId = userRepository.save(newUser("sender", BigDecimal.valueOf(100))).getId();
+        long recipientId = userRepository.save(newUser("recipient", BigDecimal.ZERO)).getId();
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch queued = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (failed.compareAndSet(false, true)) {
+                flushing.countDown();
+                queued.await();
+                throw new IllegalStateException("flush failed");
+            }
+            return invocation.callRealMethod();
+        }).when(ledger).lockBalances(anyCollection());
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch replayed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            replaying.countDown();
+            replayed.await();
+            return invocation.callRealMethod();
+        }).when(transferEngine).transfer(anyLong(), anyLong(), any(Money.class));
+
+        CompletableFuture<TransferStatus> first = transferSequencer.submit(senderId, recipientId, new Money(1000));
+        assertTrue(flushing.await(10, TimeUnit.SECONDS));
+        CompletableFuture<TransferStatus> second = transferSequencer.submit(senderId, recipientId, new Money(2000));
+        queued.countDown();
+        assertTrue(replaying.await(10, TimeUnit.SECONDS));
+
+        // the second transfer still holds the sender at 70, a reload from the database would read 100
+        CompletableFuture<TransferStatus> third = transferSequencer.submit(senderId, recipientId, new Money(8000));
+        assertEquals(TransferStatus.INSUFFICIENT_FUNDS, third.get(10, TimeUnit.SECONDS));
+        replayed.countDown();
+
+        assertEquals(TransferStatus.COMPLETED, first.get(10, TimeUnit.SECONDS));
+        assertEquals(TransferStatus.COMPLETED, second.get(10, TimeUnit.SECONDS));
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(userRepository.findBalanceById(senderId).orElseThrow()));
+        verify(transferEngine, times(1)).transfer(anyLong(), anyLong(), any(Money.class));
+    }
+}
@@ -0,0 +1,160 @@
+package org.rubnikovich.bankoperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.dto.TransactionDto;
+import org.rubnikovich.bankoperation.dto.TransactionPageDto;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.TransactionRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.rubnikovich.bankoperation.service.BatchTransferEngine;
+import org.rubnikovich.bankoperation.service.Ledger;
+import org.rubnikovich.bankoperation.service.TransactionHistoryService;
+import org.rubnikovich.bankoperation.service.TransactionService;
+import org.rubnikovich.bankoperation.service.TransferEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import({TransactionService.class, TransactionHistoryService.class, TransferEngine.class,
+        BatchTransferEngine.class, Ledger.class, JacksonAutoConfiguration.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferStatementCountTest {
+
+    private static final AtomicInteger PREPARED_STATEMENTS = new AtomicInteger();
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UsersDetails principal;
+    private User recipient;
+
+    @BeforeEach
+    void setUp() {
+        User sender = userRepository.save(newUser("sender"));
+        principal = new UsersDetails(sender.getId(), sender.getLogin());
+        recipient = userRepository.save(newUser("recipient"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEntryRepository.deleteAllInBatch();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testMakeTransaction_StatementCount() {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setRecipientId(recipient.getId());
+        transactionDto.setAmount(BigDecimal.TEN);
+        PREPARED_STATEMENTS.set(0);
+        ResponseEntity<String> response = transactionService.makeTransaction(transactionDto, principal);
+        assertEquals(200, response.getStatusCode().value());
+        // both accounts locked in one select, one balance select, transaction insert, one batch of two entries
+        assertEquals(4, PREPARED_STATEMENTS.get());
+    }
+
+    @Test
+    void testGetAllUserTransactions_KeysetPages() {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setRecipientId(recipient.getId());
+        transactionDto.setAmount(BigDecimal.ONE);
+        for (int i = 0; i < 3; i++) {
+            transactionService.makeTransaction(transactionDto, principal);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        TransactionPageDto page = transactionHistoryService.getAllUserTransactions(principal, null, null, null, 2)
+                .getBody();
+        assertEquals(2, page.getTransactions().size());
+        assertEquals(1, transactionHistoryService.getAllUserTransactions(principal, null, null, page.getNextCursor(), 2)
+                .getBody().getTransactions().size());
+        // per page: one keyset select per direction, no user lookups and no per-row user loads
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Counts statements prepared on any connection, since the transfer path runs on JdbcTemplate and
+     * bypasses hibernate statistics.
+     */
+    @TestConfiguration
+    static class StatementCountConfig {
+
+        @Bean
+        static BeanPostProcessor statementCount() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            PREPARED_STATEMENTS.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
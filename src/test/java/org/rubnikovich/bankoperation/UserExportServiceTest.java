@@ -0,0 +1,104 @@
+package org.rubnikovich.bankoperation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.mapper.UserMapperImpl;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.UserExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class UserExportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new UserExportService(userRepository, new UserMapperImpl(), objectMapper, transactionManager);
+        saveUser("first", "Smith");
+        saveUser("second", "O'Neil, Jr.");
+        userRepository.flush();
+    }
+
+    @Test
+    void testExport_JsonArrayAndNdjson() throws IOException {
+        JsonNode array = objectMapper.readTree(write(exportService.export("json", null)));
+        assertEquals(2, array.size());
+        assertEquals("first", array.get(0).get("login").asText());
+
+        String[] lines = new String(write(exportService.export("ndjson", null)), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("second", objectMapper.readTree(lines[1]).get("login").asText());
+    }
+
+    @Test
+    void testExport_GzippedCsv() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = exportService.export("CSV", "gzip, deflate");
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        byte[] csv = new GZIPInputStream(new ByteArrayInputStream(write(response))).readAllBytes();
+        assertEquals("""
+                login,firstName,lastName,birthDate,balance,initialDeposit
+                first,first,Smith,1990-01-01,10.00,10.00
+                second,first,"O'Neil, Jr.",1990-01-01,10.00,10.00
+                """, new String(csv, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExport_HonoursAcceptEncodingQuality() {
+        assertNull(contentEncoding("gzip;q=0"));
+        assertNull(contentEncoding("deflate, gzip; q=0.0"));
+        assertNull(contentEncoding("*;q=1, gzip;q=0"));
+        assertNull(contentEncoding("identity"));
+        assertEquals("gzip", contentEncoding("GZIP;q=0.5"));
+        assertEquals("gzip", contentEncoding("deflate, *;q=0.1"));
+    }
+
+    @Test
+    void testExport_RejectsUnknownFormat() {
+        assertEquals(HttpStatus.BAD_REQUEST, exportService.export("xml", null).getStatusCode());
+    }
+
+    private String contentEncoding(String acceptEncoding) {
+        return exportService.export("csv", acceptEncoding).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    private static byte[] write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private void saveUser(String login, String lastName) {
+        User user = newUser(login, BigDecimal.TEN);
+        user.setLastName(lastName);
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,55 @@
+package org.rubnikovich.bankoperation;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.rubnikovich.bankoperation.dto.UserDto;
+import org.rubnikovich.bankoperation.dto.UserSummary;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.entity.UserEmail;
+import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
+import org.rubnikovich.bankoperation.mapper.UserMapper;
+import org.rubnikovich.bankoperation.mapper.UserMapperImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    @Test
+    void testToUser_MatchesModelMapper() {
+        UserEmail email = new UserEmail();
+        email.setEmail("mail@mail.com");
+        UserPhoneNumber phone = new UserPhoneNumber();
+        phone.setPhone("+123456789");
+        UserDto userDto = UserDto.builder()
+                .login("login")
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .birthDate(LocalDate.of(1990, 10, 19))
+                .emails(List.of(email))
+                .phones(List.of(phone))
+                .initialDeposit(BigDecimal.TEN)
+                .build();
+        assertEquals(new ModelMapper().map(userDto, User.class), userMapper.toUser(userDto));
+    }
+
+    @Test
+    void testToUserDto_CopiesSummary() {
+        UserSummary summary = new UserSummary("login", "first", "last", LocalDate.of(1990, 10, 19),
+                BigDecimal.ONE, BigDecimal.TEN);
+        UserDto userDto = userMapper.toUserDto(summary);
+        assertEquals("login", userDto.getLogin());
+        assertEquals(LocalDate.of(1990, 10, 19), userDto.getBirthDate());
+        assertEquals(BigDecimal.ONE, userDto.getBalance());
+        assertEquals(BigDecimal.TEN, userDto.getInitialDeposit());
+        assertNull(userDto.getPassword());
+        assertNull(userDto.getEmails());
+    }
+}
@@ -0,0 +1,115 @@
+package org.rubnikovich.bankoperation;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.dto.UserSearchFilter;
+import org.rubnikovich.bankoperation.dto.UserSummary;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.entity.UserEmail;
+import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
+import org.rubnikovich.bankoperation.repository.EmailRepository;
+import org.rubnikovich.bankoperation.repository.PhoneRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class UserSearchRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailRepository emailRepository;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User first = saveUser("first", "Smithson", LocalDate.of(1980, 1, 1));
+        saveUser("second", "Smith", LocalDate.of(1995, 1, 1));
+        UserEmail email = new UserEmail();
+        email.setUser(first);
+        email.setEmail("first@mail.com");
+        emailRepository.save(email);
+        UserPhoneNumber phone = new UserPhoneNumber();
+        phone.setUser(first);
+        phone.setPhone("+111");
+        phoneRepository.save(phone);
+        userRepository.flush();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testSearch_AppliesAllFiltersWithoutEntities() {
+        Page<UserSummary> byLastName = search(new UserSearchFilter(null, null, "Smith", null),
+                PageRequest.of(0, 10, Sort.by("lastName")));
+        assertEquals(List.of("second", "first"), logins(byLastName));
+        assertEquals(2, byLastName.getTotalElements());
+
+        Page<UserSummary> combined = search(new UserSearchFilter(LocalDate.of(1970, 1, 1), "+111", "Smith",
+                "first@mail.com"), PageRequest.of(0, 10, Sort.by("email")));
+        assertEquals(List.of("first"), logins(combined));
+
+        Page<UserSummary> byPhoneAndBirthDate = search(new UserSearchFilter(LocalDate.of(1990, 1, 1), "+111",
+                null, null), PageRequest.of(0, 10));
+        assertEquals(List.of(), logins(byPhoneAndBirthDate));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(3, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void testSearch_CountsOnlyForFullPages() {
+        Page<UserSummary> page = search(new UserSearchFilter(null, null, null, null), PageRequest.of(0, 1));
+        assertEquals(2, page.getTotalElements());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void testSearchRanked_MatchesAnySearchedColumn() {
+        assertEquals(List.of("first", "second"), userRepository.searchRanked("smith", 10).stream()
+                .map(UserSummary::login).toList());
+        assertEquals(List.of("first"), userRepository.searchRanked("FIRST@mail", 10).stream()
+                .map(UserSummary::login).toList());
+        assertEquals(List.of("first"), userRepository.searchRanked("+11", 10).stream()
+                .map(UserSummary::login).toList());
+        assertEquals(1, userRepository.searchRanked("smith", 1).size());
+    }
+
+    private Page<UserSummary> search(UserSearchFilter filter, PageRequest pageRequest) {
+        return userRepository.searchSummaries(filter, pageRequest);
+    }
+
+    private static List<String> logins(Page<UserSummary> page) {
+        return page.map(UserSummary::login).getContent();
+    }
+
+    private User saveUser(String login, String lastName, LocalDate birthDate) {
+        User user = newUser(login, BigDecimal.TEN);
+        user.setLastName(lastName);
+        user.setBirthDate(birthDate);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,46 @@
+package org.rubnikovich.bankoperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.mapper.UserMapperImpl;
+import org.rubnikovich.bankoperation.repository.LedgerEntryRepository;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.rubnikovich.bankoperation.service.DetailsService;
+import org.rubnikovich.bankoperation.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.rubnikovich.bankoperation.TestUsers.newUser;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@Import({UserService.class, DetailsService.class, UserMapperImpl.class, SimpleMeterRegistry.class})
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Test
+    void testDelete_UserWithAccruedInterest() {
+        User user = userRepository.save(newUser("accrued"));
+        assertEquals(1, ledgerEntryRepository.accrueInterest(user.getId() - 1, user.getId()));
+
+        ResponseEntity<String> response = userService.delete(new UsersDetails(user.getId(), user.getLogin()));
+        userRepository.flush();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertFalse(userRepository.existsById(user.getId()));
+        assertEquals(0, ledgerEntryRepository.count());
+    }
+}
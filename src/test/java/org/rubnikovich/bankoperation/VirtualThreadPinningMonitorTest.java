@@ -0,0 +1,48 @@
+package org.rubnikovich.bankoperation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.rubnikovich.bankoperation.config.VirtualThreadPinningMonitor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    void testMonitor_RecordsThreadPinnedBySynchronized() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need a Java 21 runtime");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry);
+        ReflectionTestUtils.setField(monitor, "thresholdMillis", 10L);
+        ReflectionTestUtils.setField(monitor, "stackDepth", 5);
+        monitor.start();
+        try {
+            Object lock = new Object();
+            Runnable sleepUnderMonitor = () -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            // The build targets Java 17, so the Java 21 API is looked up reflectively.
+            Thread pinned = (Thread) Thread.class.getMethod("startVirtualThread", Runnable.class)
+                    .invoke(null, sleepUnderMonitor);
+            pinned.join();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (meterRegistry.find("bank.virtual-threads.pinned").timer() == null
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, meterRegistry.get("bank.virtual-threads.pinned").timer().count());
+        } finally {
+            monitor.stop();
+        }
+    }
+}
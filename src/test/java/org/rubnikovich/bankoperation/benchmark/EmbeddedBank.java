@@ -0,0 +1,62 @@
+package org.rubnikovich.bankoperation.benchmark;
+
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.BatchTransferEngine;
+import org.rubnikovich.bankoperation.service.InterestAccrualEngine;
+import org.rubnikovich.bankoperation.service.Ledger;
+import org.rubnikovich.bankoperation.service.LedgerCompactor;
+import org.rubnikovich.bankoperation.service.TransactionService;
+import org.rubnikovich.bankoperation.service.TransferEngine;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service and repository slice of the application on an in-memory H2 database migrated by Liquibase, for
+ * benchmarks that need the real transfer and accrual paths without a postgresql server. Ledger compaction
+ * runs on its usual schedule; the minute interest accrual does not.
+ */
+final class EmbeddedBank {
+
+    static final long INITIAL_BALANCE = 1_000_000;
+
+    private EmbeddedBank() {
+    }
+
+    static ConfigurableApplicationContext start(int accounts, String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BankSlice.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+        context.getBean(JdbcTemplate.class).update("INSERT INTO users (login, password, first_name, last_name, " +
+                "birth_day, balance, initial_deposit) SELECT 'user' || x, 'password', 'first', 'last', " +
+                "DATE '1990-01-01', ?, ? FROM SYSTEM_RANGE(1, ?)", INITIAL_BALANCE, INITIAL_BALANCE, accounts);
+        return context;
+    }
+
+    @EnableAutoConfiguration
+    @EnableScheduling
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    @Import({TransactionService.class, TransferEngine.class, BatchTransferEngine.class, Ledger.class,
+            LedgerCompactor.class, InterestAccrualEngine.class})
+    static class BankSlice {
+    }
+}
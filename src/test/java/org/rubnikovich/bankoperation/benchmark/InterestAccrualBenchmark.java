@@ -0,0 +1,79 @@
+package org.rubnikovich.bankoperation.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.rubnikovich.bankoperation.entity.AccrualCheckpoint;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.service.InterestAccrualEngine;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One accrual tick over every account of an {@link EmbeddedBank}, i.e. one shard of the scheduled
+ * {@code BalanceUpdater} run. Balances are reset to the initial deposit before each tick, so every account
+ * earns interest and none is skipped at the cap. The reset folds the ledger, so compaction is held off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterestAccrualBenchmark {
+
+    @Param({"1000", "100000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private InterestAccrualEngine accrualEngine;
+    private JdbcTemplate jdbcTemplate;
+    private AccrualCheckpoint checkpoint;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedBank.start(accounts, "--ledger.compaction.interval-ms=3600000");
+        accrualEngine = context.getBean(InterestAccrualEngine.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        checkpoint = new AccrualCheckpoint();
+        checkpoint.setFirstId(userRepository.findMinId() - 1);
+        checkpoint.setLastId(userRepository.findMaxId());
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBalances() {
+        jdbcTemplate.update("UPDATE users SET balance = initial_deposit, " +
+                "ledger_entry_id = (SELECT COALESCE(MAX(id), 0) FROM ledger_entry)");
+        checkpoint.setProcessedId(checkpoint.getFirstId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long accrueShard() {
+        return accrualEngine.accrueShard(checkpoint);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InterestAccrualBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package org.rubnikovich.bankoperation.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.rubnikovich.bankoperation.entity.Money;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-transfer arithmetic of a sequencer lane and its flush: funds check, debit and credit of the cached
+ * balances, and the net delta per account, on {@link BigDecimal} as before against the cents the lanes now
+ * cache and the {@link Money} deltas of the flush. Reports the gc profiler's allocation rate next to the time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int ACCOUNTS = 64;
+    private static final int TRANSFERS = 1024;
+    private static final long INITIAL_CENTS = 100_000_000_00L;
+
+    private final int[] senders = new int[TRANSFERS];
+    private final int[] recipients = new int[TRANSFERS];
+    private final BigDecimal[] decimalAmounts = new BigDecimal[TRANSFERS];
+    private final Money[] moneyAmounts = new Money[TRANSFERS];
+    private final BigDecimal[] decimalBalances = new BigDecimal[ACCOUNTS];
+    private final BigDecimal[] decimalDeltas = new BigDecimal[ACCOUNTS];
+    private final long[] centBalances = new long[ACCOUNTS];
+    private final Money[] moneyDeltas = new Money[ACCOUNTS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < TRANSFERS; i++) {
+            senders[i] = random.nextInt(ACCOUNTS);
+            recipients[i] = random.nextInt(ACCOUNTS);
+            moneyAmounts[i] = new Money(random.nextInt(1, 30000));
+            decimalAmounts[i] = moneyAmounts[i].toBigDecimal();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBalances() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            centBalances[i] = INITIAL_CENTS;
+            moneyDeltas[i] = Money.ZERO;
+            decimalBalances[i] = BigDecimal.valueOf(INITIAL_CENTS, Money.SCALE);
+            decimalDeltas[i] = BigDecimal.ZERO;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public int bigDecimal() {
+        int completed = 0;
+        for (int i = 0; i < TRANSFERS; i++) {
+            BigDecimal amount = decimalAmounts[i];
+            int sender = senders[i];
+            int recipient = recipients[i];
+            if (decimalBalances[sender].compareTo(amount) < 0) {
+                continue;
+            }
+            decimalBalances[sender] = decimalBalances[sender].subtract(amount);
+            decimalBalances[recipient] = decimalBalances[recipient].add(amount);
+            decimalDeltas[sender] = decimalDeltas[sender].add(amount.negate());
+            decimalDeltas[recipient] = decimalDeltas[recipient].add(amount);
+            completed++;
+        }
+        return completed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFERS)
+    public int money() {
+        int completed = 0;
+        for (int i = 0; i < TRANSFERS; i++) {
+            Money amount = moneyAmounts[i];
+            int sender = senders[i];
+            int recipient = recipients[i];
+            if (centBalances[sender] < amount.cents()) {
+                continue;
+            }
+            centBalances[sender] = Math.subtractExact(centBalances[sender], amount.cents());
+            centBalances[recipient] = Math.addExact(centBalances[recipient], amount.cents());
+            moneyDeltas[sender] = moneyDeltas[sender].plus(amount.negate());
+            moneyDeltas[recipient] = moneyDeltas[recipient].plus(amount);
+            completed++;
+        }
+        return completed;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
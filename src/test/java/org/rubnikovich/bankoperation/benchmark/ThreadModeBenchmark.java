@@ -0,0 +1,151 @@
+package org.rubnikovich.bankoperation.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.rubnikovich.bankoperation.SpringBankApplication;
+import org.rubnikovich.bankoperation.security.JwtUtil;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.AUTHORIZATION;
+import static org.rubnikovich.bankoperation.config.ApiConstant.BEARER;
+
+/**
+ * Time to serve {@code concurrency} simultaneous transaction history requests with platform-thread Tomcat
+ * (200 worker threads) and with the {@code virtual-threads} profile. Each request authenticates a JWT and
+ * reads a page of transactions over JDBC, so the platform mode queues behind its worker pool while the
+ * virtual mode is bounded by the Hikari pool only.
+ * <p>
+ * The virtual mode needs a Java 21 benchmark JVM, e.g. {@code -Djmh.args="-jvm /path/to/jdk-21/bin/java"}.
+ * Without {@code -Dbenchmark.jdbc-url} the application runs on in-memory H2, whose queries never wait on I/O
+ * and whose {@code synchronized} internals pin virtual threads; use a disposable postgresql database for
+ * numbers that carry over to production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int TRANSACTIONS = 20000;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"100", "1000"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = mode.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("virtual mode needs a Java 21 JVM, pass -jvm to the benchmark");
+        }
+        context = SpringApplication.run(SpringBankApplication.class, applicationArgs(virtual));
+        seed(context.getBean(JdbcTemplate.class));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        client = HttpClient.newHttpClient();
+        requests = new HttpRequest[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            requests[i] = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/transactions/user?size=20"))
+                    .header(AUTHORIZATION, BEARER + jwtUtil.generateToken("user" + (i % ACCOUNTS + 1)))
+                    .GET()
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int history() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (HttpRequest request : requests) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int failed = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() != 200) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " of " + concurrency + " requests failed");
+        }
+        return concurrency;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        if (System.getProperty("benchmark.jdbc-url") != null) {
+            jdbcTemplate.execute("TRUNCATE users, emails, phone_numbers, transaction, ledger_entry " +
+                    "RESTART IDENTITY CASCADE");
+        }
+        List<Object[]> users = new ArrayList<>(ACCOUNTS);
+        for (int i = 1; i <= ACCOUNTS; i++) {
+            users.add(new Object[]{"user" + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (login, password, first_name, last_name, birth_day, balance, " +
+                "initial_deposit) VALUES (?, 'password', 'first', 'last', DATE '1990-01-01', 100, 100)", users);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> transactions = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactions.add(new Object[]{ids.get(i % ACCOUNTS), ids.get((i + 1) % ACCOUNTS),
+                    Timestamp.valueOf(now.minusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transaction (sender_id, recipient_id, amount, date) " +
+                "VALUES (?, ?, 1, ?)", transactions);
+    }
+
+    private static String[] applicationArgs(boolean virtual) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--management.server.port=0",
+                "--logging.level.root=WARN"));
+        String jdbcUrl = System.getProperty("benchmark.jdbc-url");
+        if (jdbcUrl == null) {
+            arguments.addAll(List.of("--spring.datasource.url=jdbc:h2:mem:threads;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password="));
+        } else {
+            arguments.add("--spring.datasource.url=" + jdbcUrl);
+        }
+        if (virtual) {
+            arguments.add("--spring.profiles.active=virtual-threads");
+        }
+        return arguments.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,98 @@
+package org.rubnikovich.bankoperation.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.rubnikovich.bankoperation.dto.TransactionDto;
+import org.rubnikovich.bankoperation.dto.TransactionResultDto;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.rubnikovich.bankoperation.security.UsersDetails;
+import org.rubnikovich.bankoperation.service.TransactionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransactionService} single and batch transfers between random accounts of an {@link EmbeddedBank}.
+ * Fewer accounts means more lock contention between benchmark threads, run with {@code -t} to vary the
+ * thread count. Amounts are one cent, so no transfer fails for lack of funds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final int BATCH_SIZE = 20;
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"100", "10000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private long minId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedBank.start(accounts);
+        transactionService = context.getBean(TransactionService.class);
+        minId = context.getBean(UserRepository.class).findMinId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<String> makeTransaction() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return transactionService.makeTransaction(newTransfer(random), principal(random));
+    }
+
+    @Benchmark
+    public ResponseEntity<List<TransactionResultDto>> makeTransactions() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<TransactionDto> transfers = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            transfers.add(newTransfer(random));
+        }
+        return transactionService.makeTransactions(transfers, principal(random));
+    }
+
+    private UsersDetails principal(ThreadLocalRandom random) {
+        return new UsersDetails(minId + random.nextInt(accounts), "benchmark");
+    }
+
+    private TransactionDto newTransfer(ThreadLocalRandom random) {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setRecipientId(minId + random.nextInt(accounts));
+        transactionDto.setAmount(AMOUNT);
+        return transactionDto;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransferBenchmark.class.getSimpleName()).build()).run();
+    }
+}
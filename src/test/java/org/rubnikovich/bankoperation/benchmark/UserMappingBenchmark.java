@@ -0,0 +1,78 @@
+package org.rubnikovich.bankoperation.benchmark;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.rubnikovich.bankoperation.dto.UserDto;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.entity.UserEmail;
+import org.rubnikovich.bankoperation.entity.UserPhoneNumber;
+import org.rubnikovich.bankoperation.mapper.UserMapper;
+import org.rubnikovich.bankoperation.mapper.UserMapperImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration-path {@code UserDto -> User} conversion with the reflective {@link ModelMapper} the services
+ * used before against the generated {@link UserMapper}. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    private UserDto userDto;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        userMapper = new UserMapperImpl();
+        UserEmail email = new UserEmail();
+        email.setEmail("benchmark@mail.com");
+        UserPhoneNumber phone = new UserPhoneNumber();
+        phone.setPhone("+123456789");
+        userDto = UserDto.builder()
+                .login("benchmark")
+                .password("password")
+                .firstName("first")
+                .lastName("last")
+                .birthDate(LocalDate.of(1990, 10, 19))
+                .emails(List.of(email))
+                .phones(List.of(phone))
+                .initialDeposit(BigDecimal.valueOf(100))
+                .build();
+    }
+
+    @Benchmark
+    public User modelMapperToUser() {
+        return modelMapper.map(userDto, User.class);
+    }
+
+    @Benchmark
+    public User generatedToUser() {
+        return userMapper.toUser(userDto);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserMappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
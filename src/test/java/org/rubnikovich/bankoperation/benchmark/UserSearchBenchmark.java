@@ -0,0 +1,112 @@
+package org.rubnikovich.bankoperation.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.rubnikovich.bankoperation.dto.UserSummary;
+import org.rubnikovich.bankoperation.entity.User;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link UserRepository#searchRanked} on postgresql as the table grows. Each trial migrates the
+ * schema with Liquibase, then truncates and seeds {@code users} rows with one email and one phone each,
+ * so point {@code -Dbenchmark.jdbc-url} at a throwaway database. Only the JPA slice of the application
+ * is started, so the scheduled interest accrual does not run during measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000", "5000000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private String lastName;
+    private String misspelledLastName;
+    private String email;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String jdbcUrl = System.getProperty("benchmark.jdbc-url");
+        if (jdbcUrl == null) {
+            throw new IllegalStateException("-Dbenchmark.jdbc-url must point at a disposable postgresql database");
+        }
+        context = new SpringApplicationBuilder(SearchSlice.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + jdbcUrl);
+        userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("TRUNCATE users, emails, phone_numbers, transaction RESTART IDENTITY CASCADE");
+        jdbcTemplate.update("INSERT INTO users (login, password, first_name, last_name, birth_day, balance, " +
+                "initial_deposit) SELECT 'user' || i, 'password', initcap(substr(md5(i::text), 1, 7)), " +
+                "initcap(substr(md5((i * 7)::text), 3, 9)), DATE '1950-01-01' + i % 20000, 100, 100 " +
+                "FROM generate_series(1, ?) i", users);
+        jdbcTemplate.update("INSERT INTO emails (user_id, email) SELECT id, login || '@mail.com' FROM users");
+        jdbcTemplate.update("INSERT INTO phone_numbers (user_id, phone_number) " +
+                "SELECT id, '+375' || lpad(id::text, 9, '0') FROM users");
+        jdbcTemplate.execute("ANALYZE users, emails, phone_numbers");
+        lastName = jdbcTemplate.queryForObject("SELECT last_name FROM users WHERE id = ?", String.class, users / 2);
+        misspelledLastName = lastName.substring(0, 3) + 'x' + lastName.substring(4);
+        email = "user" + users / 3 + "@mail";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserSummary> exactLastName() {
+        return userRepository.searchRanked(lastName, LIMIT);
+    }
+
+    @Benchmark
+    public List<UserSummary> misspelledLastName() {
+        return userRepository.searchRanked(misspelledLastName, LIMIT);
+    }
+
+    @Benchmark
+    public List<UserSummary> partialEmail() {
+        return userRepository.searchRanked(email, LIMIT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class SearchSlice {
+    }
+}
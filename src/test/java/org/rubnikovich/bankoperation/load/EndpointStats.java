@@ -0,0 +1,76 @@
+package org.rubnikovich.bankoperation.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Request factory, target rate and results of one endpoint. Latencies are recorded in microseconds and
+ * reported in milliseconds. Requests dropped because too many were in flight count as errors.
+ */
+class EndpointStats {
+
+    private final String name;
+    private final double rate;
+    private final IntFunction<HttpRequest> requests;
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String name, double rate, IntFunction<HttpRequest> requests) {
+        this.name = name;
+        this.rate = rate;
+        this.requests = requests;
+    }
+
+    String name() {
+        return name;
+    }
+
+    double rate() {
+        return rate;
+    }
+
+    HttpRequest request(int user) {
+        return requests.apply(user);
+    }
+
+    void record(long latencyNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        latencies.recordValue(Math.min(micros, latencies.getHighestTrackableValue()));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    String summary(long durationSeconds) {
+        long requests = latencies.getTotalCount() + dropped.sum();
+        double errorRate = requests == 0 ? 0 : 100.0 * (errors.sum() + dropped.sum()) / requests;
+        return String.format("%-10s %10d %10.1f %7.2f%% %10.2f %10.2f %10.2f %10.2f", name, requests,
+                (double) latencies.getTotalCount() / durationSeconds, errorRate,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()));
+    }
+
+    void write(Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,261 @@
+package org.rubnikovich.bankoperation.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.rubnikovich.bankoperation.SpringBankApplication;
+import org.rubnikovich.bankoperation.repository.UserRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.rubnikovich.bankoperation.config.ApiConstant.AUTHORIZATION;
+import static org.rubnikovich.bankoperation.config.ApiConstant.BEARER;
+import static org.rubnikovich.bankoperation.config.ApiConstant.JWT_TOKEN;
+
+/**
+ * Open-model load test of the whole application. Boots {@link SpringBankApplication} on a random port, registers
+ * {@code load.users} users through {@code /auth/registration} and then sends login, transfer, history and search
+ * requests at fixed per-second rates from independent schedules. Latency is measured from the time a request
+ * was scheduled, not sent, so a stalled server shows up in the percentiles instead of lowering the request rate.
+ * <p>
+ * Without {@code -Dload.jdbc-url} the application runs on an in-memory H2 database, which is fine for smoke runs
+ * but says little about postgresql locking. Point it at a disposable local postgresql database for capacity
+ * numbers; Liquibase migrates it on startup. Program arguments are passed on to the application, e.g.
+ * {@code --password.hashing.cost=4} to make seeding faster.
+ * <p>
+ * Per endpoint it prints throughput, error rate and p50/p99/p999 latency, and writes the full HdrHistogram
+ * percentile distribution to {@code load.output}/{@code <endpoint>.hgrm}.
+ */
+public class LoadGenerator {
+
+    private static final String PASSWORD = "password";
+    private static final String[] LAST_NAMES = {"Ivanov", "Petrov", "Sidorov", "Smirnov", "Kuznetsov", "Popov",
+            "Volkov", "Sokolov", "Lebedev", "Kozlov"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final int users = Integer.getInteger("load.users", 200);
+    private final int seedConcurrency = Integer.getInteger("load.seed-concurrency", 8);
+    private final int maxInFlight = Integer.getInteger("load.max-in-flight", 1000);
+    private final long warmupSeconds = Long.getLong("load.warmup-seconds", 10);
+    private final long durationSeconds = Long.getLong("load.duration-seconds", 60);
+    private final Path output = Path.of(System.getProperty("load.output", "target/load"));
+    private final Semaphore inFlight = new Semaphore(maxInFlight);
+    private String baseUrl;
+    private String[] tokens;
+    private long[] userIds;
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator().run(args);
+    }
+
+    private void run(String[] args) throws Exception {
+        if (users < 2) {
+            throw new IllegalArgumentException("load.users must be at least 2 to have transfer recipients");
+        }
+        try (ConfigurableApplicationContext context = SpringApplication.run(SpringBankApplication.class,
+                applicationArgs(args))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            seed(context.getBean(UserRepository.class));
+            List<EndpointStats> endpoints = List.of(
+                    new EndpointStats("login", Double.parseDouble(System.getProperty("load.rate.login", "5")),
+                            this::login),
+                    new EndpointStats("transfer", Double.parseDouble(System.getProperty("load.rate.transfer", "100")),
+                            this::transfer),
+                    new EndpointStats("history", Double.parseDouble(System.getProperty("load.rate.history", "50")),
+                            this::history),
+                    new EndpointStats("search", Double.parseDouble(System.getProperty("load.rate.search", "20")),
+                            this::search));
+            drive(endpoints);
+            report(endpoints);
+        }
+    }
+
+    private String[] applicationArgs(String[] args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--management.server.port=0",
+                "--logging.level.root=WARN"));
+        String jdbcUrl = System.getProperty("load.jdbc-url");
+        if (jdbcUrl == null) {
+            arguments.addAll(List.of("--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password="));
+        } else {
+            arguments.add("--spring.datasource.url=" + jdbcUrl);
+        }
+        arguments.addAll(List.of(args));
+        return arguments.toArray(String[]::new);
+    }
+
+    private void seed(UserRepository userRepository) throws Exception {
+        long started = System.nanoTime();
+        tokens = new String[users];
+        ExecutorService seeders = Executors.newFixedThreadPool(seedConcurrency);
+        List<Future<?>> registrations = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            int user = i;
+            registrations.add(seeders.submit(() -> {
+                tokens[user] = register(user);
+                return null;
+            }));
+        }
+        for (Future<?> registration : registrations) {
+            registration.get();
+        }
+        seeders.shutdown();
+        userIds = new long[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = userRepository.findPrincipalByLogin(loginOf(i)).orElseThrow().id();
+        }
+        System.out.printf("seeded %d users in %d s%n", users,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+
+    private String register(int user) throws IOException, InterruptedException {
+        Map<String, Object> body = Map.of(
+                "login", loginOf(user),
+                "password", PASSWORD,
+                "firstName", "Load",
+                "lastName", LAST_NAMES[user % LAST_NAMES.length] + user,
+                "birthDate", "1990-01-01",
+                "emails", List.of(Map.of("email", loginOf(user) + "@mail.com")),
+                "phones", List.of(Map.of("phone", String.format("+375%09d", user))),
+                "initialDeposit", 1000);
+        return token(post("/auth/registration", body, null));
+    }
+
+    private String token(HttpRequest request) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response = send(request);
+            if (response.statusCode() == 200) {
+                return objectMapper.readTree(response.body()).get(JWT_TOKEN).asText();
+            }
+            if (response.statusCode() != 429 || attempt == 100) {
+                throw new IllegalStateException(request.uri() + " " + response.statusCode() + " " + response.body());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private void drive(List<EndpointStats> endpoints) throws InterruptedException {
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<Thread> schedulers = new ArrayList<>();
+        for (EndpointStats endpoint : endpoints) {
+            if (endpoint.rate() <= 0) {
+                continue;
+            }
+            Thread scheduler = new Thread(() -> schedule(endpoint, start, measureFrom, end), "load-" + endpoint.name());
+            scheduler.start();
+            schedulers.add(scheduler);
+        }
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    private void schedule(EndpointStats endpoint, long start, long measureFrom, long end) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / endpoint.rate());
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            long scheduledAt = intended;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    endpoint.dropped();
+                }
+                continue;
+            }
+            HttpRequest request = endpoint.request(ThreadLocalRandom.current().nextInt(users));
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                inFlight.release();
+                if (measured) {
+                    endpoint.record(System.nanoTime() - scheduledAt, error == null && response.statusCode() < 400);
+                }
+            });
+        }
+    }
+
+    private HttpRequest login(int user) {
+        return post("/auth/login", Map.of("login", loginOf(user), "password", PASSWORD), null);
+    }
+
+    private HttpRequest transfer(int user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int recipient = (user + 1 + random.nextInt(users - 1)) % users;
+        return post("/transactions", Map.of("recipientId", userIds[recipient], "amount", "0.01"), tokens[user]);
+    }
+
+    private HttpRequest history(int user) {
+        return authorized("/transactions/user?size=20", user).GET().build();
+    }
+
+    private HttpRequest search(int user) {
+        String query = LAST_NAMES[ThreadLocalRandom.current().nextInt(LAST_NAMES.length)];
+        return authorized("/users/search?limit=20&query=" + URLEncoder.encode(query, StandardCharsets.UTF_8), user)
+                .GET().build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header(AUTHORIZATION, BEARER + token);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private HttpRequest.Builder authorized(String path, int user) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header(AUTHORIZATION, BEARER + tokens[user]);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(List<EndpointStats> endpoints) throws IOException {
+        Files.createDirectories(output);
+        System.out.printf("%-10s %10s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointStats endpoint : endpoints) {
+            System.out.println(endpoint.summary(durationSeconds));
+            endpoint.write(output.resolve(endpoint.name() + ".hgrm"));
+        }
+    }
+
+    private static String loginOf(int user) {
+        return "load" + user;
+    }
+}